@@ -38,6 +38,7 @@ public class Constants {
     public static final String KARATE_CONFIG_INCL_RESULT_METHOD = "karate.config.result.result-method.include";
     public static final String KARATE_OUTPUT_DIR = "karate.output.dir";
     public static final String KARATE_OPTIONS = "karate.options";
+    public static final String KARATE_HTTP_CLIENT = "karate.http.client";
     public static final String KARATE_REPORTS = "karate-reports";
     public static final String KARATE_JSON_SUFFIX = ".karate-json.txt";
     
@@ -35,6 +35,7 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.util.Comparator;
 import java.util.Properties;
 import org.slf4j.LoggerFactory;
@@ -105,8 +106,8 @@ public class FileUtils {
     }
 
     public static byte[] toBytes(File file) {
-        try {
-            return toBytes(new FileInputStream(file));
+        try (InputStream is = new FileInputStream(file)) {
+            return toBytes(is);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -130,6 +131,25 @@ public class FileUtils {
         }
     }
 
+    // the stream is read in chunks, so this works for files of any size
+    public static String toDigest(InputStream is, String algorithm) {
+        try {
+            MessageDigest md = MessageDigest.getInstance(algorithm);
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = is.read(buffer)) != -1) {
+                md.update(buffer, 0, length);
+            }
+            StringBuilder sb = new StringBuilder();
+            for (byte b : md.digest()) {
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static String toString(byte[] bytes) {
         if (bytes == null) {
             return null;
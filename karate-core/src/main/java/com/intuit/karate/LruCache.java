@@ -0,0 +1,109 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * bounded cache that can be read from many threads without locking, once the
+ * size goes over the limit the least recently used entries are evicted (a
+ * tenth of the entries at a time, so that the sort is not done on every put)
+ *
+ * @author pthomas3
+ */
+public class LruCache<K, V> {
+
+    private final int max;
+    private final Map<K, Entry<V>> map = new ConcurrentHashMap();
+    // only bumped on put, so a get is a plain read (entries used since the last
+    // put share a time-stamp, which is close enough)
+    private final AtomicLong clock = new AtomicLong();
+
+    private static class Entry<V> {
+
+        final V value;
+        volatile long used;
+
+        Entry(V value, long used) {
+            this.value = value;
+            this.used = used;
+        }
+
+    }
+
+    public LruCache(int max) {
+        this.max = max;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.used = clock.get();
+        return entry.value;
+    }
+
+    public void put(K key, V value) {
+        map.put(key, new Entry(value, clock.incrementAndGet()));
+        if (map.size() > max) {
+            evict();
+        }
+    }
+
+    public V computeIfAbsent(K key, Function<K, V> function) {
+        V value = get(key);
+        if (value == null) {
+            value = function.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    private synchronized void evict() {
+        int excess = map.size() - max;
+        if (excess <= 0) { // another thread got here first
+            return;
+        }
+        List<Map.Entry<K, Entry<V>>> entries = new ArrayList(map.entrySet());
+        entries.sort((a, b) -> Long.compare(a.getValue().used, b.getValue().used));
+        int count = Math.min(entries.size(), excess + max / 10);
+        for (int i = 0; i < count; i++) {
+            Map.Entry<K, Entry<V>> e = entries.get(i);
+            map.remove(e.getKey(), e.getValue());
+        }
+    }
+
+}
@@ -152,8 +152,13 @@ public class Match {
         final String path;
         final String name;
         final int index;
+        final int parallelThreshold;
 
         Context(JsEngine js, MatchOperation root, boolean xml, int depth, String path, String name, int index) {
+            this(js, root, xml, depth, path, name, index, 0);
+        }
+
+        Context(JsEngine js, MatchOperation root, boolean xml, int depth, String path, String name, int index, int parallelThreshold) {
             this.JS = js;
             this.root = root;
             this.xml = xml;
@@ -161,27 +166,33 @@ public class Match {
             this.path = path;
             this.name = name;
             this.index = index;
+            this.parallelThreshold = parallelThreshold;
         }
 
         Context descend(String name) {
             if (xml) {
                 String childPath = path.endsWith("/@") ? path + name : (depth == 0 ? "" : path) + "/" + name;
-                return new Context(JS, root, xml, depth + 1, childPath, name, -1);
+                return new Context(JS, root, xml, depth + 1, childPath, name, -1, parallelThreshold);
             } else {
                 boolean needsQuotes = name.indexOf('-') != -1 || name.indexOf(' ') != -1 || name.indexOf('.') != -1;
                 String childPath = needsQuotes ? path + "['" + name + "']" : path + '.' + name;
-                return new Context(JS, root, xml, depth + 1, childPath, name, -1);
+                return new Context(JS, root, xml, depth + 1, childPath, name, -1, parallelThreshold);
             }
         }
 
         Context descend(int index) {
             if (xml) {
-                return new Context(JS, root, xml, depth + 1, path + "[" + (index + 1) + "]", name, index);
+                return new Context(JS, root, xml, depth + 1, path + "[" + (index + 1) + "]", name, index, parallelThreshold);
             } else {
-                return new Context(JS, root, xml, depth + 1, path + "[" + index + "]", name, index);
+                return new Context(JS, root, xml, depth + 1, path + "[" + index + "]", name, index, parallelThreshold);
             }
         }
 
+        // for a parallel "match each" worker, which never forks again
+        Context fork(JsEngine js, MatchOperation root) {
+            return new Context(js, root, xml, depth, path, name, index, 0);
+        }
+
     }
 
     static enum ValueType {
@@ -411,7 +422,11 @@ public class Match {
     }
 
     public static Result execute(JsEngine js, Type matchType, Object actual, Object expected) {
-        MatchOperation mo = new MatchOperation(js, matchType, new Value(actual), new Value(expected));
+        return execute(js, matchType, actual, expected, 0);
+    }
+
+    public static Result execute(JsEngine js, Type matchType, Object actual, Object expected, int parallelThreshold) {
+        MatchOperation mo = new MatchOperation(js, matchType, new Value(actual), new Value(expected), parallelThreshold);
         mo.execute();
         if (mo.pass) {
             return PASS;
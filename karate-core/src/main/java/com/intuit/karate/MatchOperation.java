@@ -36,6 +36,12 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.graalvm.polyglot.Value;
+import org.w3c.dom.Node;
 
 /**
  *
@@ -62,11 +68,19 @@ public class MatchOperation {
         this(js, null, type, actual, expected);
     }
 
+    MatchOperation(JsEngine js, Match.Type type, Match.Value actual, Match.Value expected, int parallelThreshold) {
+        this(js, null, type, actual, expected, parallelThreshold);
+    }
+
     MatchOperation(Match.Context context, Match.Type type, Match.Value actual, Match.Value expected) {
         this(null, context, type, actual, expected);
     }
 
     private MatchOperation(JsEngine js, Match.Context context, Match.Type type, Match.Value actual, Match.Value expected) {
+        this(js, context, type, actual, expected, 0);
+    }
+
+    private MatchOperation(JsEngine js, Match.Context context, Match.Type type, Match.Value actual, Match.Value expected, int parallelThreshold) {
         this.type = type;
         this.actual = actual;
         this.expected = expected;
@@ -76,9 +90,9 @@ public class MatchOperation {
             }
             this.failures = new ArrayList();
             if (actual.isXml()) {
-                this.context = new Match.Context(js, this, true, 0, "/", "", -1);
+                this.context = new Match.Context(js, this, true, 0, "/", "", -1, parallelThreshold);
             } else {
-                this.context = new Match.Context(js, this, false, 0, "$", "", -1);
+                this.context = new Match.Context(js, this, false, 0, "$", "", -1, parallelThreshold);
             }
         } else {
             this.context = context;
@@ -86,6 +100,102 @@ public class MatchOperation {
         }
     }
 
+    private static class EachChunk {
+
+        final int start;
+        final int end;
+        final JsEngine js;
+        MatchOperation root;
+        int failedIndex = -1;
+
+        EachChunk(int start, int end, JsEngine js) {
+            this.start = start;
+            this.end = end;
+            this.js = js;
+        }
+
+    }
+
+    // each worker gets a js context of its own (with a copy of the variables) and
+    // collects failures separately, so that only the failure with the lowest
+    // index is reported, the same one as a serial run would
+    private boolean executeEachParallel(List list, Match.Type nestedMatchType) {
+        int count = list.size();
+        int chunkCount = Math.max(2, ForkJoinPool.getCommonPoolParallelism());
+        int chunkSize = (count + chunkCount - 1) / chunkCount;
+        List<EachChunk> chunks = new ArrayList(chunkCount);
+        for (int start = 0; start < count; start += chunkSize) {
+            // graal contexts are not thread-safe, so the copy happens on this thread
+            chunks.add(new EachChunk(start, Math.min(count, start + chunkSize), JsEngine.local(context.JS)));
+        }
+        AtomicInteger firstFailure = new AtomicInteger(Integer.MAX_VALUE);
+        chunks.parallelStream().forEach(chunk -> {
+            chunk.root = new MatchOperation(chunk.js, context.root.type, context.root.actual, context.root.expected);
+            Match.Context forked = context.fork(chunk.js, chunk.root);
+            for (int i = chunk.start; i < chunk.end && i < firstFailure.get(); i++) {
+                Object o = list.get(i);
+                chunk.js.put("_$", o);
+                MatchOperation mo = new MatchOperation(forked.descend(i), nestedMatchType, new Match.Value(o), expected);
+                mo.execute();
+                if (!mo.pass) {
+                    chunk.failedIndex = i;
+                    firstFailure.accumulateAndGet(i, Math::min);
+                    break;
+                }
+            }
+        });
+        for (EachChunk chunk : chunks) { // in order
+            if (chunk.failedIndex != -1) {
+                failures.addAll(chunk.root.failures);
+                return fail("match each failed at index " + chunk.failedIndex);
+            }
+        }
+        return true;
+    }
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_$][\\w$]*");
+
+    // the worker threads cannot call back into the scenario, so karate.* or any
+    // function (or java object) bound to the scenario means the match stays serial
+    private boolean isParallelSafe(Object o) {
+        if (o instanceof String) {
+            String s = (String) o;
+            if (!s.startsWith("#")) {
+                return true; // no js
+            }
+            Matcher matcher = IDENTIFIER.matcher(s);
+            while (matcher.find()) {
+                String name = matcher.group();
+                if ("karate".equals(name)) {
+                    return false;
+                }
+                if (context.JS.bindings.hasMember(name)) {
+                    Value value = context.JS.bindings.getMember(name);
+                    if (value.canExecute() || value.isHostObject()) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } else if (o instanceof Map) {
+            for (Object v : ((Map) o).values()) {
+                if (!isParallelSafe(v)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (o instanceof List) {
+            for (Object v : (List) o) {
+                if (!isParallelSafe(v)) {
+                    return false;
+                }
+            }
+            return true;
+        } else {
+            return !(o instanceof Node); // xml can have embedded expressions, keep it serial
+        }
+    }
+
     private Match.Type fromMatchEach() {
         switch (type) {
             case EACH_CONTAINS:
@@ -159,6 +269,9 @@ public class MatchOperation {
                     List list = actual.getValue();
                     Match.Type nestedMatchType = fromMatchEach();
                     int count = list.size();
+                    if (context.parallelThreshold > 0 && count >= context.parallelThreshold && isParallelSafe(expected.getValue())) {
+                        return executeEachParallel(list, nestedMatchType);
+                    }
                     for (int i = 0; i < count; i++) {
                         Object o = list.get(i);
                         context.JS.put("_$", o);
@@ -239,86 +352,73 @@ public class MatchOperation {
         }
     }
 
-    private boolean macroEqualsExpected(String expStr) {
-        boolean optional = expStr.startsWith("##");
-        if (optional && actual.isNull()) { // exit early
-            return true;
+    // fuzzy-match markers are parsed once and re-used, which matters for say a
+    // "match each" over a large array, where every element is compared with the
+    // same marker string
+    private static final LruCache<String, Macro> MACROS = new LruCache(10000);
+
+    private static class Macro {
+
+        boolean nested; // #(...)
+        boolean array; // #[...]
+        Match.Type nestedType;
+        String js; // embedded expression, schema reference or predicate
+        String sizeJs;
+        String eachMacro;
+        String validatorName;
+        Match.Validator validator;
+
+        static Macro of(String expStr) {
+            return MACROS.computeIfAbsent(expStr, Macro::new);
         }
-        int minLength = optional ? 3 : 2;
-        if (expStr.length() > minLength) {
+
+        Macro(String expStr) {
+            boolean optional = expStr.startsWith("##");
+            int minLength = optional ? 3 : 2;
+            if (expStr.length() <= minLength) {
+                return;
+            }
             String macro = expStr.substring(minLength - 1);
             if (macro.startsWith("(") && macro.endsWith(")")) {
+                nested = true;
                 macro = macro.substring(1, macro.length() - 1);
-                Match.Type nestedType = macroToMatchType(false, macro);
+                nestedType = macroToMatchType(false, macro);
                 int startPos = matchTypeToStartPos(nestedType);
-                macro = macro.substring(startPos);
-                if (actual.isList()) { // special case, look for partial maps within list
-                    if (nestedType == Match.Type.CONTAINS) {
-                        nestedType = Match.Type.CONTAINS_DEEP;
-                    } else if (nestedType == Match.Type.CONTAINS_ANY) {
-                        nestedType = Match.Type.CONTAINS_ANY_DEEP;
-                    }
-                }
-                context.JS.put("$", context.root.actual.getValue());
-                context.JS.put("_", actual.getValue());
-                JsValue jv = context.JS.eval(macro);
-                context.JS.bindings.removeMember("$");
-                context.JS.bindings.removeMember("_");
-                MatchOperation mo = new MatchOperation(context, nestedType, actual, new Match.Value(jv.getValue()));
-                return mo.execute();
+                js = macro.substring(startPos);
             } else if (macro.startsWith("[")) {
                 int closeBracketPos = macro.indexOf(']');
-                if (closeBracketPos != -1) { // array, match each
-                    if (!actual.isList()) {
-                        return fail("actual is not an array");
+                if (closeBracketPos == -1) {
+                    return;
+                }
+                array = true; // match each
+                if (closeBracketPos > 1) {
+                    String bracketContents = macro.substring(1, closeBracketPos);
+                    if (bracketContents.indexOf('_') != -1) { // #[_ < 5]
+                        sizeJs = bracketContents;
+                    } else { // #[5] | #[$.foo]
+                        sizeJs = bracketContents + " == _";
                     }
-                    if (closeBracketPos > 1) {
-                        String bracketContents = macro.substring(1, closeBracketPos);
-                        List listAct = actual.getValue();
-                        int listSize = listAct.size();
-                        context.JS.put("$", context.root.actual.getValue());
-                        context.JS.put("_", listSize);
-                        String sizeExpr;
-                        if (bracketContents.indexOf('_') != -1) { // #[_ < 5] 
-                            sizeExpr = bracketContents;
-                        } else { // #[5] | #[$.foo] 
-                            sizeExpr = bracketContents + " == _";
+                }
+                if (macro.length() > closeBracketPos + 1) {
+                    macro = StringUtils.trimToNull(macro.substring(closeBracketPos + 1));
+                    if (macro != null) {
+                        if (macro.startsWith("(") && macro.endsWith(")")) {
+                            macro = macro.substring(1, macro.length() - 1); // strip parens
                         }
-                        JsValue jv = context.JS.eval(sizeExpr);
-                        context.JS.bindings.removeMember("$");
-                        context.JS.bindings.removeMember("_");
-                        if (!jv.isTrue()) {
-                            return fail("actual array length is " + listSize);
+                        if (macro.startsWith("?")) { // #[]? _.length == 3
+                            macro = "#" + macro;
                         }
-                    }
-                    if (macro.length() > closeBracketPos + 1) {
-                        macro = StringUtils.trimToNull(macro.substring(closeBracketPos + 1));
-                        if (macro != null) {
-                            if (macro.startsWith("(") && macro.endsWith(")")) {
-                                macro = macro.substring(1, macro.length() - 1); // strip parens
-                            }
-                            if (macro.startsWith("?")) { // #[]? _.length == 3
-                                macro = "#" + macro;
-                            }
-                            if (macro.startsWith("#")) {
-                                MatchOperation mo = new MatchOperation(context, Match.Type.EACH_EQUALS, actual, new Match.Value(macro));
-                                mo.execute();
-                                return mo.pass ? pass() : fail("all array elements matched");
-                            } else { // schema reference
-                                Match.Type nestedType = macroToMatchType(true, macro); // match each
-                                int startPos = matchTypeToStartPos(nestedType);
-                                macro = macro.substring(startPos);
-                                JsValue jv = context.JS.eval(macro);
-                                MatchOperation mo = new MatchOperation(context, nestedType, actual, new Match.Value(jv.getValue()));
-                                return mo.execute();
-                            }
+                        if (macro.startsWith("#")) {
+                            eachMacro = macro;
+                        } else { // schema reference
+                            nestedType = macroToMatchType(true, macro); // match each
+                            int startPos = matchTypeToStartPos(nestedType);
+                            js = macro.substring(startPos);
                         }
                     }
-                    return true; // expression within square brackets is ok
                 }
             } else { // '#? _ != 0' | '#string' | '#number? _ > 0'
                 int questionPos = macro.indexOf('?');
-                String validatorName = null;
                 // in case of regex we don't want to remove the '?'
                 if (questionPos != -1 && !macro.startsWith(REGEX)) {
                     validatorName = macro.substring(0, questionPos);
@@ -333,50 +433,100 @@ public class MatchOperation {
                 }
                 validatorName = StringUtils.trimToNull(validatorName);
                 if (validatorName != null) {
-                    Match.Validator validator = null;
-
                     if (validatorName.startsWith(REGEX)) {
                         String regex = validatorName.substring(5).trim();
                         validator = new Match.RegexValidator(regex);
                     } else {
                         validator = Match.VALIDATORS.get(validatorName);
                     }
-
-                    if (validator != null) {
-                        if (optional && (actual.isNotPresent() || actual.isNull())) {
-                            // pass
-                        } else if (!optional && actual.isNotPresent()) {
-                            // if the element is not present the expected result can only be
-                            // the notpresent keyword, ignored or an optional comparison
-                            return expected.isNotPresent() || "#ignore".contentEquals(expected.getAsString());
-                        } else {
-                            Match.Result mr = validator.apply(actual);
-                            if (!mr.pass) {
-                                return fail(mr.message);
-                            }
-                        }
-                    } else if (!validatorName.startsWith(REGEX)) { // expected is a string that happens to start with "#"
-                        String actualValue = actual.getValue();
-                        switch (type) {
-                            case CONTAINS:
-                                return actualValue.contains(expStr);
-                            default:
-                                return actualValue.equals(expStr);
-                        }
-                    }
-
                 }
                 macro = StringUtils.trimToNull(macro);
                 if (macro != null && questionPos != -1) {
-                    context.JS.put("$", context.root.actual.getValue());
-                    context.JS.put("_", actual.getValue());
-                    JsValue jv = context.JS.eval(macro);
-                    context.JS.bindings.removeMember("$");
-                    context.JS.bindings.removeMember("_");
-                    if (!jv.isTrue()) {
-                        return fail("evaluated to 'false'");
+                    js = macro;
+                }
+            }
+        }
+
+    }
+
+    private JsValue evalMacro(String js, Object value) {
+        context.JS.put("$", context.root.actual.getValue());
+        context.JS.put("_", value);
+        JsValue jv = context.JS.eval(js);
+        context.JS.bindings.removeMember("$");
+        context.JS.bindings.removeMember("_");
+        return jv;
+    }
+
+    private boolean macroEqualsExpected(String expStr) {
+        boolean optional = expStr.startsWith("##");
+        if (optional && actual.isNull()) { // exit early
+            return true;
+        }
+        Macro macro = Macro.of(expStr);
+        if (macro.nested) {
+            Match.Type nestedType = macro.nestedType;
+            if (actual.isList()) { // special case, look for partial maps within list
+                if (nestedType == Match.Type.CONTAINS) {
+                    nestedType = Match.Type.CONTAINS_DEEP;
+                } else if (nestedType == Match.Type.CONTAINS_ANY) {
+                    nestedType = Match.Type.CONTAINS_ANY_DEEP;
+                }
+            }
+            JsValue jv = evalMacro(macro.js, actual.getValue());
+            MatchOperation mo = new MatchOperation(context, nestedType, actual, new Match.Value(jv.getValue()));
+            return mo.execute();
+        } else if (macro.array) {
+            if (!actual.isList()) {
+                return fail("actual is not an array");
+            }
+            if (macro.sizeJs != null) {
+                List listAct = actual.getValue();
+                int listSize = listAct.size();
+                JsValue jv = evalMacro(macro.sizeJs, listSize);
+                if (!jv.isTrue()) {
+                    return fail("actual array length is " + listSize);
+                }
+            }
+            if (macro.eachMacro != null) {
+                MatchOperation mo = new MatchOperation(context, Match.Type.EACH_EQUALS, actual, new Match.Value(macro.eachMacro));
+                mo.execute();
+                return mo.pass ? pass() : fail("all array elements matched");
+            } else if (macro.js != null) { // schema reference
+                JsValue jv = evalMacro(macro.js, actual.getValue());
+                MatchOperation mo = new MatchOperation(context, macro.nestedType, actual, new Match.Value(jv.getValue()));
+                return mo.execute();
+            }
+            return true; // expression within square brackets is ok
+        }
+        if (macro.validatorName != null) {
+            if (macro.validator != null) {
+                if (optional && (actual.isNotPresent() || actual.isNull())) {
+                    // pass
+                } else if (!optional && actual.isNotPresent()) {
+                    // if the element is not present the expected result can only be
+                    // the notpresent keyword, ignored or an optional comparison
+                    return expected.isNotPresent() || "#ignore".contentEquals(expected.getAsString());
+                } else {
+                    Match.Result mr = macro.validator.apply(actual);
+                    if (!mr.pass) {
+                        return fail(mr.message);
                     }
                 }
+            } else if (!macro.validatorName.startsWith(REGEX)) { // expected is a string that happens to start with "#"
+                String actualValue = actual.getValue();
+                switch (type) {
+                    case CONTAINS:
+                        return actualValue.contains(expStr);
+                    default:
+                        return actualValue.equals(expStr);
+                }
+            }
+        }
+        if (macro.js != null) {
+            JsValue jv = evalMacro(macro.js, actual.getValue());
+            if (!jv.isTrue()) {
+                return fail("evaluated to 'false'");
             }
         }
         return true; // all ok
@@ -27,6 +27,7 @@ import com.intuit.karate.core.FeatureResult;
 import com.intuit.karate.core.ScenarioResult;
 import com.intuit.karate.core.TagResults;
 import com.intuit.karate.core.TimelineResults;
+import com.intuit.karate.graal.JsEngine;
 import com.intuit.karate.report.ReportUtils;
 import java.io.File;
 import java.util.ArrayList;
@@ -125,6 +126,10 @@ public class Results {
         System.out.println(String.format("elapsed: %6.2f | threads: %4d | thread time: %.2f ",
                 getElapsedTime() / 1000, suite.threadCount, timeTakenMillis / 1000));
         System.out.println(String.format("features: %5d | skipped: %4d | efficiency: %.2f", getFeaturesTotal(), featuresSkipped, getEfficiency()));
+        if (suite.schedule != null) {
+            System.out.println(String.format("predicted: %4.2f | longest-first, features with durations: %d",
+                    suite.schedule.getPredictedMillis() / 1000d, suite.schedule.getFeaturesWithDurations()));
+        }
         System.out.println(String.format("scenarios: %4d | passed: %5d | failed: %d",
                 getScenariosTotal(), scenariosPassed, scenariosFailed));
         System.out.println("======================================================");
@@ -139,6 +144,9 @@ public class Results {
         Map<String, Object> map = new HashMap();
         map.put("version", FileUtils.KARATE_VERSION);
         map.put("threads", suite.threadCount);
+        if (suite.virtualThreads) {
+            map.put("virtualThreads", true);
+        }
         map.put("featuresPassed", featuresPassed);
         map.put("featuresFailed", featuresFailed);
         map.put("featuresSkipped", featuresSkipped);
@@ -147,8 +155,18 @@ public class Results {
         map.put("elapsedTime", getElapsedTime());
         map.put("totalTime", getTimeTakenMillis());
         map.put("efficiency", getEfficiency());
+        if (suite.schedule != null) {
+            map.put("predictedTime", suite.schedule.getPredictedMillis());
+        }
         map.put("resultDate", ReportUtils.getDateString());
         map.put("featureSummary", featureSummary);
+        Map<String, Object> httpClientStats = getHttpClientStats();
+        if (httpClientStats != null) {
+            map.put("httpClientStats", httpClientStats);
+        }
+        map.put("jsCacheStats", getJsCacheStats());
+        map.put("featureCacheStats", getFeatureCacheStats());
+        map.put("resourceCacheStats", getResourceCacheStats());
         return map;
     }
 
@@ -212,6 +230,25 @@ public class Results {
         return StringUtils.join(errors, '\n');
     }
 
+    // will be null if the http client does not pool connections
+    public Map<String, Object> getHttpClientStats() {
+        // suite may still be in progress, e.g. junit
+        return suite.httpClientStats == null ? suite.clientFactory.getStats() : suite.httpClientStats;
+    }
+
+    // process-wide, js sources are shared across suites
+    public Map<String, Object> getJsCacheStats() {
+        return JsEngine.getCacheStats();
+    }
+
+    public Map<String, Object> getFeatureCacheStats() {
+        return suite.featureCache.getStats();
+    }
+
+    public Map<String, Object> getResourceCacheStats() {
+        return suite.resourceCache.getStats();
+    }
+
     public Suite getSuite() {
         return suite;
     }
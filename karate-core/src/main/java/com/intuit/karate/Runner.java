@@ -76,6 +76,9 @@ public class Runner {
         Builder builder = new Builder();
         builder.tags = tags;
         builder.suiteCache = perfHook.getGlobalCache(); // for call-single to lock across all threads
+        synchronized (builder.suiteCache) { // so that connections are pooled across all threads
+            builder.clientFactory = (HttpClientFactory) builder.suiteCache.computeIfAbsent(HttpClientFactory.class.getName(), k -> HttpClientFactory.of(System.getProperty(Constants.KARATE_HTTP_CLIENT)));
+        }
         Suite suite = new Suite(builder); // sets tag selector
         Feature feature = FileUtils.parseFeatureAndCallTag(path);
         FeatureRuntime featureRuntime = FeatureRuntime.of(suite, feature, arg, perfHook);
@@ -181,6 +184,9 @@ public class Runner {
         HttpClientFactory clientFactory;
         boolean forTempUse;
         boolean backupReportDir = true;
+        boolean longestFirst;
+        boolean virtualThreads;
+        int maxConcurrent;
         boolean outputHtmlReport = true;
         boolean outputJunitXml;
         boolean outputCucumberJson;
@@ -195,14 +201,14 @@ public class Runner {
             if (classLoader == null) {
                 classLoader = Thread.currentThread().getContextClassLoader();
             }
-            if (clientFactory == null) {
-                clientFactory = HttpClientFactory.DEFAULT;
-            }
             if (systemProperties == null) {
                 systemProperties = new HashMap(System.getProperties());
             } else {
                 systemProperties.putAll(new HashMap(System.getProperties()));
             }
+            if (clientFactory == null) {
+                clientFactory = HttpClientFactory.of(systemProperties.get(Constants.KARATE_HTTP_CLIENT));
+            }
             // env
             String tempOptions = StringUtils.trimToNull(systemProperties.get(Constants.KARATE_OPTIONS));
             if (tempOptions != null) {
@@ -473,6 +479,23 @@ public class Runner {
             return (T) this;
         }        
 
+        public T longestFirst(boolean value) {
+            longestFirst = value;
+            return (T) this;
+        }
+
+        // java 21 and above, see maxConcurrent() for the limit on concurrent scenarios
+        public T virtualThreads(boolean value) {
+            virtualThreads = value;
+            return (T) this;
+        }
+
+        // only for virtual threads, defaults to the thread count if not set
+        public T maxConcurrent(int value) {
+            maxConcurrent = value;
+            return (T) this;
+        }
+
         public T outputCucumberJson(boolean value) {
             outputCucumberJson = value;
             return (T) this;
@@ -24,14 +24,19 @@
 package com.intuit.karate;
 
 import com.intuit.karate.core.Feature;
+import com.intuit.karate.core.FeatureCache;
 import com.intuit.karate.core.FeatureResult;
 import com.intuit.karate.core.FeatureRuntime;
+import com.intuit.karate.core.FeatureSchedule;
+import com.intuit.karate.core.ResourceCache;
 import com.intuit.karate.report.ReportUtils;
 import com.intuit.karate.core.Scenario;
+import com.intuit.karate.core.ScenarioCall;
 import com.intuit.karate.core.ScenarioResult;
 import com.intuit.karate.core.ScenarioRuntime;
 import com.intuit.karate.core.SyncExecutorService;
 import com.intuit.karate.core.Tags;
+import com.intuit.karate.core.VirtualThreads;
 import com.intuit.karate.http.HttpClientFactory;
 import com.intuit.karate.job.JobManager;
 import com.intuit.karate.report.SuiteReports;
@@ -46,6 +51,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -64,6 +70,8 @@ public class Suite implements Runnable {
     public final long startTime;
     protected long endTime;
     protected int skippedCount;
+    protected Map<String, Object> httpClientStats;
+    protected FeatureSchedule schedule;
 
     public final String env;
     public final String tagSelector;
@@ -74,6 +82,7 @@ public class Suite implements Runnable {
     public final String reportDir;
     public final ClassLoader classLoader;
     public final int threadCount;
+    public final int maxConcurrent;
     public final int timeoutMinutes;
     public final int featuresFound;
     public final List<Feature> features;
@@ -84,6 +93,7 @@ public class Suite implements Runnable {
     public final Map<String, String> systemProperties;
 
     public final boolean backupReportDir;
+    public final boolean longestFirst;
     public final SuiteReports suiteReports;
 
     public final boolean outputHtmlReport;
@@ -91,6 +101,7 @@ public class Suite implements Runnable {
     public final boolean outputJunitXml;
 
     public final boolean parallel;
+    public final boolean virtualThreads;
     public final ExecutorService scenarioExecutor;
     public final ExecutorService pendingTasks;
 
@@ -101,6 +112,9 @@ public class Suite implements Runnable {
     public final String karateConfigEnv;
 
     public final Map<String, Object> suiteCache;
+    public final Map<String, CompletableFuture<ScenarioCall.Result>> callonceCache = new ConcurrentHashMap();
+    public final FeatureCache featureCache = new FeatureCache();
+    public final ResourceCache resourceCache = new ResourceCache();
     private final ReentrantLock progressFileLock;
 
     private String read(String name) {
@@ -127,6 +141,7 @@ public class Suite implements Runnable {
             dryRun = false;
             debugMode = false;
             backupReportDir = false;
+            longestFirst = false;
             outputHtmlReport = false;
             outputCucumberJson = false;
             outputJunitXml = false;
@@ -137,6 +152,7 @@ public class Suite implements Runnable {
             systemProperties = null;
             tagSelector = null;
             threadCount = -1;
+            maxConcurrent = -1;
             timeoutMinutes = -1;
             hooks = Collections.EMPTY_LIST;
             features = null;
@@ -150,6 +166,7 @@ public class Suite implements Runnable {
             karateConfig = null;
             karateConfigEnv = null;
             parallel = false;
+            virtualThreads = false;
             scenarioExecutor = null;
             pendingTasks = null;
             suiteCache = null;
@@ -160,6 +177,7 @@ public class Suite implements Runnable {
             startTime = System.currentTimeMillis();
             rb.resolveAll();
             backupReportDir = rb.backupReportDir;
+            longestFirst = rb.longestFirst;
             outputHtmlReport = rb.outputHtmlReport;
             outputCucumberJson = rb.outputCucumberJson;
             outputJunitXml = rb.outputJunitXml;
@@ -194,11 +212,22 @@ public class Suite implements Runnable {
             }
             threadCount = rb.threadCount;
             timeoutMinutes = rb.timeoutMinutes;
-            parallel = threadCount > 1;
+            int maxVirtual = rb.maxConcurrent > 0 ? rb.maxConcurrent : threadCount;
+            ExecutorService virtual = rb.virtualThreads && maxVirtual > 1 ? VirtualThreads.newExecutor(maxVirtual) : null;
+            virtualThreads = virtual != null;
+            parallel = virtualThreads || threadCount > 1;
             if (parallel) {
-                scenarioExecutor = Executors.newFixedThreadPool(threadCount);
+                if (virtualThreads) {
+                    maxConcurrent = maxVirtual;
+                    logger.info("scenarios will run on virtual threads, max concurrent: {}", maxConcurrent);
+                    scenarioExecutor = virtual;
+                } else {
+                    maxConcurrent = threadCount;
+                    scenarioExecutor = Executors.newFixedThreadPool(threadCount);
+                }
                 pendingTasks = Executors.newSingleThreadExecutor();
             } else {
+                maxConcurrent = threadCount;
                 scenarioExecutor = SyncExecutorService.INSTANCE;
                 pendingTasks = SyncExecutorService.INSTANCE;
             }
@@ -209,12 +238,17 @@ public class Suite implements Runnable {
     @Override
     public void run() {
         try {
+            List<Feature> ordered = features;
+            if (longestFirst) { // before the backup, which moves the previous results
+                schedule = FeatureSchedule.load(reportDir, features, maxConcurrent);
+                ordered = schedule.getFeatures();
+            }
             if (backupReportDir) {
                 backupReportDirIfExists();
             }
             hooks.forEach(h -> h.beforeSuite(this));
             int index = 0;
-            for (Feature feature : features) {
+            for (Feature feature : ordered) {
                 final int featureNum = ++index;
                 FeatureRuntime fr = FeatureRuntime.of(this, feature);
                 final CompletableFuture future = new CompletableFuture();
@@ -238,11 +272,16 @@ public class Suite implements Runnable {
                 CompletableFuture.allOf(futuresArray).join();
             }
             endTime = System.currentTimeMillis();
+            if (schedule != null) {
+                logger.info("longest-first schedule, predicted time: {} ms, actual: {} ms", schedule.getPredictedMillis(), endTime - startTime);
+            }
         } catch (Throwable t) {
             logger.error("runner failed: " + t);
         } finally {
             scenarioExecutor.shutdownNow();
             pendingTasks.shutdownNow();
+            httpClientStats = clientFactory.getStats();
+            clientFactory.close();
             if (jobManager != null) {
                 jobManager.server.stop();
             }
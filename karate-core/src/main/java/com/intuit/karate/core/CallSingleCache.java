@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.JsonUtils;
+import com.intuit.karate.Logger;
+import com.intuit.karate.StringUtils;
+import com.intuit.karate.graal.JsFunction;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * the disk cache for callSingle results, see configure callSingleCache. a
+ * result is written as json along with when it was created and when it
+ * expires (as per the minutes in effect when callSingle was invoked for that
+ * key), so that the next run (or another jvm sharing the directory) can skip
+ * the call altogether. detached js functions are written as their source
+ *
+ * @author pthomas3
+ */
+public class CallSingleCache {
+
+    private static final String FUNCTION = "#karate-function";
+
+    private final String key;
+    private final File file;
+
+    public CallSingleCache(String dir, String key) {
+        this.key = key;
+        file = new File(dir + File.separator + StringUtils.toIdString(key) + ".json");
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * returns null if there is no cache file, or if it has expired, or if it
+     * was written for some other key or by an older version
+     */
+    public Object read(int minutes, Logger logger) {
+        if (!file.exists()) {
+            logger.info("callSingleCache file does not exist, will create: {}", file);
+            return null;
+        }
+        Map<String, Object> map;
+        try {
+            Object o = JsonUtils.fromJson(FileUtils.toString(file));
+            if (!(o instanceof Map)) {
+                throw new RuntimeException("not json");
+            }
+            map = (Map) o;
+            if (!key.equals(map.get("key")) || !map.containsKey("value")) {
+                throw new RuntimeException("not a cache entry for: " + key);
+            }
+        } catch (Exception e) {
+            logger.warn("callSingleCache ignoring invalid file: {} - {}", file, e.getMessage());
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        long created = ((Number) map.get("created")).longValue();
+        long expires = ((Number) map.get("expires")).longValue();
+        // the current config can make an entry stale earlier than when written
+        expires = Math.min(expires, created + minutes * 60 * 1000L);
+        if (expires <= now) {
+            logger.info("callSingleCache stale, created {} - expired {} (minutes: {})", created, expires, minutes);
+            return null;
+        }
+        logger.info("callSingleCache hit: {}", file);
+        return fromJson(map.get("value"));
+    }
+
+    /**
+     * the value has to be detached, and anything other than json-like data,
+     * strings, numbers, booleans and (detached) js functions is not written
+     */
+    public boolean write(Object value, int minutes, Logger logger) {
+        Object json;
+        try {
+            json = toJson(value);
+        } catch (Exception e) {
+            logger.warn("callSingleCache write failed: {}", e.getMessage());
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, Object> map = new LinkedHashMap(4);
+        map.put("key", key);
+        map.put("created", now);
+        map.put("expires", now + minutes * 60 * 1000L);
+        map.put("value", json);
+        // other threads or jvm-s should never see a partially written file
+        // and the temp file name has to be unique across jvm-s as well
+        File temp = null;
+        try {
+            File dir = file.getAbsoluteFile().getParentFile();
+            dir.mkdirs();
+            temp = Files.createTempFile(dir.toPath(), file.getName() + ".", ".tmp").toFile();
+            FileUtils.writeToFile(temp, JsonUtils.toJson(map));
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (Exception e) { // file system does not support atomic moves
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (Exception e) {
+            logger.warn("callSingleCache write failed: {} - {}", file, e.getMessage());
+            if (temp != null) {
+                temp.delete();
+            }
+            return false;
+        }
+        logger.info("callSingleCache write: {}", file);
+        return true;
+    }
+
+    private static Object toJson(Object o) {
+        if (o == null || o instanceof String || o instanceof Number || o instanceof Boolean) {
+            return o;
+        } else if (o instanceof JsFunction) {
+            Map<String, Object> map = new LinkedHashMap(1);
+            map.put(FUNCTION, ((JsFunction) o).source.toString());
+            return map;
+        } else if (o instanceof List) {
+            List list = (List) o;
+            List copy = new ArrayList(list.size());
+            list.forEach(v -> copy.add(toJson(v)));
+            return copy;
+        } else if (o instanceof Map) {
+            Map<String, Object> map = (Map) o;
+            Map<String, Object> copy = new LinkedHashMap(map.size());
+            map.forEach((k, v) -> copy.put(k, toJson(v)));
+            return copy;
+        } else {
+            throw new RuntimeException("not json-like: " + o.getClass().getName());
+        }
+    }
+
+    private static Object fromJson(Object o) {
+        if (o instanceof List) {
+            List list = (List) o;
+            int count = list.size();
+            for (int i = 0; i < count; i++) {
+                list.set(i, fromJson(list.get(i)));
+            }
+            return list;
+        } else if (o instanceof Map) {
+            Map<String, Object> map = (Map) o;
+            if (map.size() == 1 && map.get(FUNCTION) instanceof String) {
+                return JsFunction.fromSource((String) map.get(FUNCTION));
+            }
+            map.replaceAll((k, v) -> fromJson(v));
+            return map;
+        } else {
+            return o;
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2018 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.LruCache;
+import com.intuit.karate.StringUtils;
+
+/**
+ * the result of classifying a karate expression (the right-hand side of a
+ * def, the argument to request etc.) which only depends on the text, so it is
+ * worked out once and re-used across scenarios and threads, see {@link #get(String)}
+ *
+ * @author pthomas3
+ */
+public class CompiledExpression {
+
+    // bounded, since karate.eval() text can be dynamic
+    private static final LruCache<String, CompiledExpression> CACHE = new LruCache(10000);
+
+    public static enum Type {
+        CALL,
+        CALL_ONCE,
+        JSON_PATH, // $..foo or $.foo on the response
+        GET_JSON_PATH,
+        GET_XML_PATH,
+        JSON,
+        XML,
+        XML_PATH, // /foo/bar on the response
+        JS
+    }
+
+    public final Type type;
+    public final String text;
+    public final String value; // what is left after the call / get prefix, or the js to eval
+    public final String left; // variable name for get
+    public final String right; // path for get
+    public final int index; // for get[n], -1 otherwise
+
+    private CompiledExpression(Type type, String text, String value, String left, String right, int index) {
+        this.type = type;
+        this.text = text;
+        this.value = value;
+        this.left = left;
+        this.right = right;
+        this.index = index;
+    }
+
+    private static CompiledExpression of(Type type, String text, String value) {
+        return new CompiledExpression(type, text, value, null, null, -1);
+    }
+
+    public static CompiledExpression get(String text) {
+        return CACHE.computeIfAbsent(text, CompiledExpression::compile);
+    }
+
+    public static CompiledExpression compile(String text) {
+        if (ScenarioEngine.isCallOnceSyntax(text)) {
+            return of(Type.CALL_ONCE, text, text.substring(9));
+        } else if (ScenarioEngine.isCallSyntax(text)) {
+            return of(Type.CALL, text, text.substring(5));
+        } else if (ScenarioEngine.isDollarPrefixedJsonPath(text)) {
+            return of(Type.JSON_PATH, text, text);
+        } else if (ScenarioEngine.isGetSyntax(text) || ScenarioEngine.isDollarPrefixed(text)) {
+            // get json[*].path
+            // $json[*].path
+            // get /xml/path
+            // get xpath-function(expression)
+            int index = -1;
+            String temp;
+            if (text.startsWith("$")) {
+                temp = text.substring(1);
+            } else if (text.startsWith("get[")) {
+                int pos = text.indexOf(']');
+                index = Integer.valueOf(text.substring(4, pos));
+                temp = text.substring(pos + 2);
+            } else {
+                temp = text.substring(4);
+            }
+            String left;
+            String right;
+            if (ScenarioEngine.isDollarPrefixedJsonPath(temp)) { // edge case get[0] $..foo
+                left = ScenarioEngine.RESPONSE;
+                right = temp;
+            } else if (ScenarioEngine.isVariableAndSpaceAndPath(temp)) {
+                int pos = temp.indexOf(' ');
+                right = temp.substring(pos + 1);
+                left = temp.substring(0, pos);
+            } else {
+                StringUtils.Pair pair = ScenarioEngine.parseVariableAndPath(temp);
+                left = pair.left;
+                right = pair.right;
+            }
+            Type type = ScenarioEngine.isXmlPath(right) || ScenarioEngine.isXmlPathFunction(right) ? Type.GET_XML_PATH : Type.GET_JSON_PATH;
+            return new CompiledExpression(type, text, temp, left, right, index);
+        } else if (ScenarioEngine.isJson(text)) {
+            return of(Type.JSON, text, text);
+        } else if (ScenarioEngine.isXml(text)) {
+            return of(Type.XML, text, text);
+        } else if (ScenarioEngine.isXmlPath(text)) {
+            return of(Type.XML_PATH, text, text);
+        } else {
+            // old school function declarations e.g. function() { } need wrapping in graal
+            // js expressions e.g. foo, foo(bar), foo.bar, foo + bar, foo + '', 5, true
+            // including arrow functions e.g. x => x + 1
+            return of(Type.JS, text, ScenarioEngine.isJavaScriptFunction(text) ? "(" + text + ")" : text);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type + ": " + text;
+    }
+
+}
@@ -53,6 +53,12 @@ public class Config {
     public static final int DEFAULT_RETRY_COUNT = 3;
     public static final int DEFAULT_TIMEOUT = 30000;
     public static final int DEFAULT_HIGHLIGHT_DURATION = 3000;
+    public static final int DEFAULT_POOL_MAX_TOTAL = 200;
+    public static final int DEFAULT_POOL_MAX_PER_ROUTE = 50;
+    public static final int DEFAULT_POOL_IDLE_TIMEOUT = 30000;
+    public static final String RESPONSE_PARSING_EAGER = "eager";
+    public static final String RESPONSE_PARSING_LAZY = "lazy";
+    public static final String RESPONSE_PARSING_NONE = "none";
 
     private boolean sslEnabled = false;
     private String sslAlgorithm = "TLS";
@@ -72,6 +78,9 @@ public class Config {
     private String proxyPassword;
     private List<String> nonProxyHosts;
     private String localAddress;
+    private int poolMaxTotal = DEFAULT_POOL_MAX_TOTAL;
+    private int poolMaxPerRoute = DEFAULT_POOL_MAX_PER_ROUTE;
+    private int poolIdleTimeout = DEFAULT_POOL_IDLE_TIMEOUT;
     private int responseDelay;
     private boolean lowerCaseResponseHeaders = false;
     private boolean corsEnabled = false;
@@ -80,6 +89,9 @@ public class Config {
     private boolean printEnabled = true;
     private boolean outlineVariablesAuto = true;
     private boolean abortedStepsShouldPass = false;
+    private int matchEachParallelThreshold = 0;
+    private String responseParsing = RESPONSE_PARSING_EAGER;
+    private int responseFileThreshold = 0;
     private Target driverTarget;
     private Map<String, Object> driverOptions;
     private Map<String, Object> robotOptions; // TODO make generic plugin model
@@ -230,6 +242,19 @@ public class Config {
             case "abortedStepsShouldPass":
                 abortedStepsShouldPass = value.isTrue();
                 return false;
+            case "matchEachParallelThreshold":
+                matchEachParallelThreshold = value.isNull() ? 0 : value.getAsInt();
+                return false;
+            case "responseParsing":
+                String temp = value.isNull() ? RESPONSE_PARSING_EAGER : value.getAsString();
+                if (!RESPONSE_PARSING_EAGER.equals(temp) && !RESPONSE_PARSING_LAZY.equals(temp) && !RESPONSE_PARSING_NONE.equals(temp)) {
+                    throw new RuntimeException("'responseParsing' has to be one of 'eager', 'lazy' or 'none', but was: " + temp);
+                }
+                responseParsing = temp;
+                return false;
+            case "responseFileThreshold":
+                responseFileThreshold = value.isNull() ? 0 : value.getAsInt();
+                return false;
             case "callSingleCache":
                 if (value.isMap()) {
                     Map<String, Object> map = value.getValue();
@@ -291,6 +316,14 @@ public class Config {
             case "localAddress":
                 localAddress = value.getAsString();
                 return true;
+            case "connectionPool":
+                if (value.isMap()) {
+                    Map<String, Object> map = value.getValue();
+                    poolMaxTotal = get(map, "maxTotal", poolMaxTotal);
+                    poolMaxPerRoute = get(map, "maxPerRoute", poolMaxPerRoute);
+                    poolIdleTimeout = get(map, "idleTimeout", poolIdleTimeout);
+                }
+                return true;
             case "continueOnStepFailure":
                 continueOnStepFailureMethods.clear(); // clears previous configuration - in case someone is trying to chain these and forgets resetting the previous one
 
@@ -343,6 +376,9 @@ public class Config {
         proxyPassword = parent.proxyPassword;
         nonProxyHosts = parent.nonProxyHosts;
         localAddress = parent.localAddress;
+        poolMaxTotal = parent.poolMaxTotal;
+        poolMaxPerRoute = parent.poolMaxPerRoute;
+        poolIdleTimeout = parent.poolIdleTimeout;
         responseDelay = parent.responseDelay;
         lowerCaseResponseHeaders = parent.lowerCaseResponseHeaders;
         corsEnabled = parent.corsEnabled;
@@ -358,6 +394,9 @@ public class Config {
         retryCount = parent.retryCount;
         outlineVariablesAuto = parent.outlineVariablesAuto;
         abortedStepsShouldPass = parent.abortedStepsShouldPass;
+        matchEachParallelThreshold = parent.matchEachParallelThreshold;
+        responseParsing = parent.responseParsing;
+        responseFileThreshold = parent.responseFileThreshold;
         logModifier = parent.logModifier;
         callSingleCacheMinutes = parent.callSingleCacheMinutes;
         callSingleCacheDir = parent.callSingleCacheDir;
@@ -446,6 +485,18 @@ public class Config {
         return localAddress;
     }
 
+    public int getPoolMaxTotal() {
+        return poolMaxTotal;
+    }
+
+    public int getPoolMaxPerRoute() {
+        return poolMaxPerRoute;
+    }
+
+    public int getPoolIdleTimeout() {
+        return poolIdleTimeout;
+    }
+
     public Variable getHeaders() {
         return headers;
     }
@@ -546,6 +597,18 @@ public class Config {
         return abortedStepsShouldPass;
     }
 
+    public int getMatchEachParallelThreshold() {
+        return matchEachParallelThreshold;
+    }
+
+    public String getResponseParsing() {
+        return responseParsing;
+    }
+
+    public int getResponseFileThreshold() {
+        return responseFileThreshold;
+    }
+
     public Target getDriverTarget() {
         return driverTarget;
     }
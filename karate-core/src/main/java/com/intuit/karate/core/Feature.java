@@ -72,6 +72,21 @@ public class Feature {
         this.resource = resource;
     }
 
+    /**
+     * the parsed scenarios are shared (and never changed once parsed), only
+     * the call details (tag, name, line) are not
+     */
+    public Feature copy() {
+        Feature feature = new Feature(resource);
+        feature.line = line;
+        feature.tags = tags;
+        feature.name = name;
+        feature.description = description;
+        feature.background = background;
+        feature.sections = sections;
+        return feature;
+    }
+
     public Resource getResource() {
         return resource;
     }
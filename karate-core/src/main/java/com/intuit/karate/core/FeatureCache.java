@@ -0,0 +1,69 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.resource.Resource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * suite-wide cache of parsed features, so that a feature that is called over
+ * and over is parsed only once. every read returns a copy that shares the
+ * parsed scenarios but has its own call details (tag, name, line)
+ *
+ * @author pthomas3
+ */
+public class FeatureCache {
+
+    private final Map<String, Feature> features = new ConcurrentHashMap();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public Feature get(Resource resource) {
+        String key = ResourceCache.toKey(resource);
+        if (key == null) {
+            misses.increment();
+            return Feature.read(resource);
+        }
+        Feature feature = features.get(key);
+        if (feature == null) {
+            misses.increment();
+            feature = features.computeIfAbsent(key, k -> Feature.read(resource));
+        } else {
+            hits.increment();
+        }
+        return feature.copy();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> map = new HashMap(3);
+        map.put("features", features.size());
+        map.put("hits", hits.sum());
+        map.put("misses", misses.sum());
+        return map;
+    }
+
+}
@@ -33,6 +33,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,7 +55,7 @@ public class FeatureRuntime implements Runnable {
     
     private final ParallelProcessor<ScenarioRuntime> processor;
     
-    public final Map<String, ScenarioCall.Result> FEATURE_CACHE = new HashMap();
+    public final Map<String, CompletableFuture<ScenarioCall.Result>> FEATURE_CACHE = new ConcurrentHashMap();
     
     private Runnable next;
     
@@ -115,7 +116,8 @@ public class FeatureRuntime implements Runnable {
             processor = new ParallelProcessor<ScenarioRuntime>(
                     suite.scenarioExecutor,
                     scenarios,
-                    suite.pendingTasks) {
+                    suite.pendingTasks,
+                    suite.maxConcurrent * 2) {
                 
                 @Override
                 public void process(ScenarioRuntime sr) {
@@ -0,0 +1,141 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.Json;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * orders the features of a suite longest-first, using the scenario durations
+ * recorded in the karate-json files of the previous run (in the report dir).
+ * since the scenario thread-pool picks up work in the order submitted, this
+ * keeps a slow feature from being started last and holding up the suite.
+ * features not found in the previous run are scheduled first, since nothing
+ * is known about them
+ *
+ * @author pthomas3
+ */
+public class FeatureSchedule {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeatureSchedule.class);
+
+    private final List<Feature> features;
+    private final Map<Feature, List<Double>> durations;
+    private final long predictedMillis;
+
+    private FeatureSchedule(List<Feature> features, Map<Feature, List<Double>> durations, int threadCount) {
+        this.durations = durations;
+        List<Feature> sorted = new ArrayList(features);
+        // stable, so features with the same total (or none) stay in file order
+        Collections.sort(sorted, Comparator.comparingDouble(this::getTotal).reversed());
+        this.features = Collections.unmodifiableList(sorted);
+        predictedMillis = Math.round(predict(threadCount));
+    }
+
+    public static FeatureSchedule load(String reportDir, List<Feature> features, int threadCount) {
+        Map<Feature, List<Double>> durations = new HashMap();
+        for (Feature feature : features) {
+            File file = new File(reportDir + File.separator + feature.getKarateJsonFileName());
+            if (!file.exists()) {
+                continue;
+            }
+            try {
+                Map<String, Object> map = Json.of(FileUtils.toString(file)).asMap();
+                List<Map<String, Object>> list = (List) map.get("scenarioResults");
+                List<Double> scenarioDurations = new ArrayList(list.size());
+                for (Map<String, Object> sr : list) {
+                    scenarioDurations.add(((Number) sr.get("durationMillis")).doubleValue());
+                }
+                durations.put(feature, scenarioDurations);
+            } catch (Exception e) {
+                logger.warn("ignoring durations from invalid file: {} - {}", file, e.getMessage());
+            }
+        }
+        FeatureSchedule schedule = new FeatureSchedule(features, durations, threadCount);
+        logger.info("longest-first schedule, features with durations: {} of {}, predicted time: {} ms",
+                durations.size(), features.size(), schedule.predictedMillis);
+        return schedule;
+    }
+
+    private double getTotal(Feature feature) {
+        List<Double> list = durations.get(feature);
+        if (list == null) {
+            return Double.MAX_VALUE;
+        }
+        double total = 0;
+        for (double d : list) {
+            total += d;
+        }
+        return total;
+    }
+
+    // scenarios are started in order, each on the thread that becomes free first
+    // and a feature not in the previous run is assumed to take the mean feature duration
+    private double predict(int threadCount) {
+        PriorityQueue<Double> threads = new PriorityQueue();
+        for (int i = 0; i < Math.max(threadCount, 1); i++) {
+            threads.add(0d);
+        }
+        double mean = 0;
+        for (Feature feature : durations.keySet()) {
+            mean += getTotal(feature) / durations.size();
+        }
+        double makespan = 0;
+        for (Feature feature : features) {
+            List<Double> list = durations.get(feature);
+            if (list == null) {
+                list = Collections.singletonList(mean);
+            }
+            for (double d : list) {
+                double end = threads.poll() + d;
+                threads.add(end);
+                makespan = Math.max(makespan, end);
+            }
+        }
+        return makespan;
+    }
+
+    public List<Feature> getFeatures() {
+        return features;
+    }
+
+    public long getPredictedMillis() {
+        return predictedMillis;
+    }
+
+    public int getFeaturesWithDurations() {
+        return durations.size();
+    }
+
+}
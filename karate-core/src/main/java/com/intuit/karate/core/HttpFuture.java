@@ -0,0 +1,82 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.http.HttpRequest;
+import com.intuit.karate.http.Response;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * an http call in flight, returned by karate.httpAsync() and handed back to
+ * karate.await() or karate.awaitAll() which run the usual post-processing
+ * (logs, hooks, perf-events, response variables) on the scenario thread
+ *
+ * @author pthomas3
+ */
+public class HttpFuture {
+
+    final HttpRequest request;
+    final String perfEventName;
+    final CompletableFuture<Response> future;
+
+    private volatile long failedTimeMillis;
+    private Map<String, Object> result; // once collected
+
+    HttpFuture(HttpRequest request, String perfEventName, CompletableFuture<Response> future) {
+        this.request = request;
+        this.perfEventName = perfEventName;
+        this.future = future.whenComplete((r, e) -> {
+            if (e != null) {
+                failedTimeMillis = System.currentTimeMillis();
+            }
+        });
+    }
+
+    long getFailedTimeMillis() {
+        return failedTimeMillis;
+    }
+
+    Map<String, Object> getResult() {
+        return result;
+    }
+
+    void setResult(Map<String, Object> result) {
+        this.result = result;
+    }
+
+    public HttpRequest getRequest() {
+        return request;
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    @Override
+    public String toString() {
+        return request.getMethod() + " " + request.getUrl() + (isDone() ? " (done)" : " (pending)");
+    }
+
+}
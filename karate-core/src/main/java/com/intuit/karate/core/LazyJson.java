@@ -0,0 +1,352 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.JsonUtils;
+import com.intuit.karate.http.ResourceType;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * a json response body that is parsed only when it is first accessed, for
+ * configure responseParsing = 'lazy'. the body is a map or list as far as
+ * the rest of karate (and js) is concerned, which is why the first byte is
+ * used to decide which one. the body is scanned up front (without creating
+ * any objects) so that malformed json falls back to a string like when eager
+ *
+ * @author pthomas3
+ */
+public class LazyJson {
+
+    private final byte[] bytes;
+    private volatile Object parsed;
+
+    private LazyJson(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * returns null if the body is not a valid json object or array, in which
+     * case the caller should parse it the usual way
+     */
+    public static Object of(byte[] bytes, ResourceType resourceType) {
+        if (bytes == null || (resourceType != null && !resourceType.isJson() && !resourceType.isText())) {
+            return null;
+        }
+        for (byte b : bytes) {
+            switch (b) {
+                case ' ':
+                case '\t':
+                case '\r':
+                case '\n':
+                    continue;
+                case '{':
+                    return isValid(bytes) ? new LazyMap(new LazyJson(bytes)) : null;
+                case '[':
+                    return isValid(bytes) ? new LazyList(new LazyJson(bytes)) : null;
+                default:
+                    return null;
+            }
+        }
+        return null;
+    }
+
+    private static final int MAX_DEPTH = 512;
+
+    static boolean isValid(byte[] bytes) {
+        int pos = skipSpace(bytes, value(bytes, 0, 0));
+        return pos == bytes.length;
+    }
+
+    private static int skipSpace(byte[] b, int pos) {
+        while (pos >= 0 && pos < b.length) {
+            switch (b[pos]) {
+                case ' ':
+                case '\t':
+                case '\r':
+                case '\n':
+                    pos++;
+                    break;
+                default:
+                    return pos;
+            }
+        }
+        return pos;
+    }
+
+    // returns the position after the value, or -1 if invalid
+    private static int value(byte[] b, int pos, int depth) {
+        pos = skipSpace(b, pos);
+        if (pos < 0 || pos >= b.length || depth > MAX_DEPTH) {
+            return -1;
+        }
+        switch (b[pos]) {
+            case '{':
+                return container(b, pos, depth, '}');
+            case '[':
+                return container(b, pos, depth, ']');
+            case '"':
+                return string(b, pos);
+            case 't':
+                return literal(b, pos, "true");
+            case 'f':
+                return literal(b, pos, "false");
+            case 'n':
+                return literal(b, pos, "null");
+            default:
+                return number(b, pos);
+        }
+    }
+
+    private static int container(byte[] b, int pos, int depth, char end) {
+        pos = skipSpace(b, pos + 1);
+        if (pos < b.length && b[pos] == end) {
+            return pos + 1;
+        }
+        while (pos >= 0 && pos < b.length) {
+            if (end == '}') {
+                pos = string(b, skipSpace(b, pos));
+                pos = skipSpace(b, pos);
+                if (pos < 0 || pos >= b.length || b[pos] != ':') {
+                    return -1;
+                }
+                pos++;
+            }
+            pos = skipSpace(b, value(b, pos, depth + 1));
+            if (pos < 0 || pos >= b.length) {
+                return -1;
+            }
+            if (b[pos] == end) {
+                return pos + 1;
+            }
+            if (b[pos] != ',') {
+                return -1;
+            }
+            pos++;
+        }
+        return -1;
+    }
+
+    private static int string(byte[] b, int pos) {
+        if (pos < 0 || pos >= b.length || b[pos] != '"') {
+            return -1;
+        }
+        for (pos++; pos < b.length; pos++) {
+            byte c = b[pos];
+            if (c == '"') {
+                return pos + 1;
+            } else if (c == '\\') {
+                pos++; // the escaped character is validated when parsed
+            } else if (c >= 0 && c < ' ') {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static int literal(byte[] b, int pos, String literal) {
+        if (pos + literal.length() > b.length) {
+            return -1;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (b[pos + i] != literal.charAt(i)) {
+                return -1;
+            }
+        }
+        return pos + literal.length();
+    }
+
+    private static int number(byte[] b, int pos) {
+        int start = pos;
+        if (b[pos] == '-') {
+            pos++;
+        }
+        int digits = pos;
+        while (pos < b.length && isDigit(b[pos])) {
+            pos++;
+        }
+        if (pos == digits) {
+            return -1;
+        }
+        if (pos < b.length && b[pos] == '.') {
+            digits = ++pos;
+            while (pos < b.length && isDigit(b[pos])) {
+                pos++;
+            }
+            if (pos == digits) {
+                return -1;
+            }
+        }
+        if (pos < b.length && (b[pos] == 'e' || b[pos] == 'E')) {
+            pos++;
+            if (pos < b.length && (b[pos] == '+' || b[pos] == '-')) {
+                pos++;
+            }
+            digits = pos;
+            while (pos < b.length && isDigit(b[pos])) {
+                pos++;
+            }
+            if (pos == digits) {
+                return -1;
+            }
+        }
+        return pos > start ? pos : -1;
+    }
+
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+
+    public static boolean isParsed(Object o) {
+        if (o instanceof LazyMap) {
+            return ((LazyMap) o).json.parsed != null;
+        } else if (o instanceof LazyList) {
+            return ((LazyList) o).json.parsed != null;
+        } else {
+            return true;
+        }
+    }
+
+    private Object parse() {
+        Object temp = parsed;
+        if (temp == null) {
+            synchronized (this) {
+                temp = parsed;
+                if (temp == null) {
+                    try {
+                        temp = JsonUtils.fromJsonStrict(FileUtils.toString(bytes));
+                    } catch (Exception e) {
+                        throw new RuntimeException("lazy parsing of response failed, try configure responseParsing = 'eager': " + e.getMessage());
+                    }
+                    parsed = temp;
+                }
+            }
+        }
+        return temp;
+    }
+
+    private static class LazyMap extends AbstractMap<String, Object> {
+
+        final LazyJson json;
+
+        LazyMap(LazyJson json) {
+            this.json = json;
+        }
+
+        Map<String, Object> map() {
+            return (Map) json.parse();
+        }
+
+        @Override
+        public Object get(Object key) {
+            return map().get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return map().containsKey(key);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            return map().put(key, value);
+        }
+
+        @Override
+        public Object remove(Object key) {
+            return map().remove(key);
+        }
+
+        @Override
+        public void clear() {
+            map().clear();
+        }
+
+        @Override
+        public int size() {
+            return map().size();
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return map().keySet();
+        }
+
+        @Override
+        public Collection<Object> values() {
+            return map().values();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return map().entrySet();
+        }
+
+    }
+
+    private static class LazyList extends AbstractList<Object> {
+
+        final LazyJson json;
+
+        LazyList(LazyJson json) {
+            this.json = json;
+        }
+
+        List<Object> list() {
+            return (List) json.parse();
+        }
+
+        @Override
+        public Object get(int index) {
+            return list().get(index);
+        }
+
+        @Override
+        public Object set(int index, Object element) {
+            return list().set(index, element);
+        }
+
+        @Override
+        public void add(int index, Object element) {
+            list().add(index, element);
+        }
+
+        @Override
+        public Object remove(int index) {
+            return list().remove(index);
+        }
+
+        @Override
+        public int size() {
+            return list().size();
+        }
+
+    }
+
+}
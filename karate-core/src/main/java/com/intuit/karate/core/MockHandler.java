@@ -25,7 +25,6 @@ package com.intuit.karate.core;
 
 import com.intuit.karate.ScenarioActions;
 import com.intuit.karate.Suite;
-import com.intuit.karate.StringUtils;
 import com.intuit.karate.Json;
 import com.intuit.karate.KarateException;
 import com.intuit.karate.graal.JsValue;
@@ -37,6 +36,8 @@ import com.intuit.karate.http.ServerHandler;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import org.slf4j.Logger;
@@ -56,20 +57,30 @@ public class MockHandler implements ServerHandler {
 
     private static final String RESPONSE_DELAY = "responseDelay";
 
-    private static final String PATH_MATCHES = "pathMatches";
-    private static final String METHOD_IS = "methodIs";
-    private static final String TYPE_CONTAINS = "typeContains";
-    private static final String ACCEPT_CONTAINS = "acceptContains";
+    static final String PATH_MATCHES = "pathMatches";
+    static final String METHOD_IS = "methodIs";
+    static final String TYPE_CONTAINS = "typeContains";
+    static final String ACCEPT_CONTAINS = "acceptContains";
     private static final String HEADER_CONTAINS = "headerContains";
     private static final String PARAM_VALUE = "paramValue";
-    private static final String PARAM_EXISTS = "paramExists";
-    private static final String PATH_PARAMS = "pathParams";
+    static final String PARAM_EXISTS = "paramExists";
+    static final String PATH_PARAMS = "pathParams";
     private static final String BODY_PATH = "bodyPath";
 
+    private static final String CONCURRENT = "concurrent";
+    private static final String LOCK = "lock";
+
     private final Feature feature;
+    private final MockRouter router;
     private final ScenarioRuntime runtime; // holds global config and vars
     private final Map<String, Variable> globals;
     private final boolean corsEnabled;
+    // a feature tagged @concurrent handles requests in parallel, and scenarios
+    // tagged @lock (typically those that update globals) run one at a time
+    private final boolean concurrent;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // split path patterns for the pathMatches() calls left to js
+    private final Map<String, List<String>> patterns = new ConcurrentHashMap();
     
     protected static final ThreadLocal<Request> LOCAL_REQUEST = new ThreadLocal<Request>();
 
@@ -79,6 +90,7 @@ public class MockHandler implements ServerHandler {
 
     public MockHandler(Feature feature, Map<String, Object> args) {
         this.feature = feature;
+        router = new MockRouter(feature);
         FeatureRuntime featureRuntime = FeatureRuntime.of(Suite.forTempUse(), feature, args);
         FeatureSection section = new FeatureSection();
         section.setIndex(-1); // TODO util for creating dummy scenario
@@ -112,7 +124,9 @@ public class MockHandler implements ServerHandler {
             }
         }
         corsEnabled = runtime.engine.getConfig().isCorsEnabled();
-        globals = runtime.engine.detachVariables(true);
+        concurrent = new Tags(feature.getTags()).contains(CONCURRENT);
+        Map<String, Variable> detached = runtime.engine.detachVariables(true);
+        globals = concurrent ? new ConcurrentHashMap(detached) : detached;
         runtime.logger.info("mock server initialized: {}", feature);
     }
 
@@ -120,23 +134,39 @@ public class MockHandler implements ServerHandler {
     private static final String ALLOWED_METHODS = "GET, HEAD, POST, PUT, DELETE, PATCH";
 
     @Override
-    public synchronized Response handle(Request req) { // note the [synchronized]
-        if (corsEnabled && "OPTIONS".equals(req.getMethod())) {
-            Response response = new Response(200);
-            response.setHeader("Allow", ALLOWED_METHODS);
-            response.setHeader("Access-Control-Allow-Origin", "*");
-            response.setHeader("Access-Control-Allow-Methods", ALLOWED_METHODS);
-            List<String> requestHeaders = req.getHeaderValues("Access-Control-Request-Headers");
-            if (requestHeaders != null) {
-                response.setHeader("Access-Control-Allow-Headers", requestHeaders);
+    public Response handle(Request req) {
+        if (concurrent) {
+            return handleConcurrent(req);
+        }
+        synchronized (this) {
+            return handle(req, null);
+        }
+    }
+
+    private Response handleConcurrent(Request req) {
+        lock.readLock().lock();
+        try {
+            return handle(req, lock);
+        } finally {
+            if (lock.isWriteLockedByCurrentThread()) {
+                lock.writeLock().unlock();
+            } else {
+                lock.readLock().unlock();
             }
-            return response;
         }
-        // important for graal to work properly
-        Thread.currentThread().setContextClassLoader(runtime.featureRuntime.suite.classLoader);
-        LOCAL_REQUEST.set(req);
-        req.processBody();
-        ScenarioEngine engine = new ScenarioEngine(runtime, new HashMap(globals));
+    }
+
+    private ScenarioEngine createEngine(Request req) {
+        ScenarioEngine engine;
+        if (concurrent) {
+            // each request gets its own copy of globals to mutate, and its own
+            // logger since the date formatter and log buffer are not thread-safe
+            Map<String, Variable> vars = new HashMap(globals.size());
+            globals.forEach((k, v) -> vars.put(k, v.copy(true)));
+            engine = new ScenarioEngine(runtime.engine.getConfig(), runtime, vars, new com.intuit.karate.Logger());
+        } else {
+            engine = new ScenarioEngine(runtime, new HashMap(globals));
+        }
         ScenarioEngine.set(engine);
         engine.init();
         engine.setVariable(ScenarioEngine.REQUEST_URL_BASE, req.getUrlBase());
@@ -150,81 +180,134 @@ public class MockHandler implements ServerHandler {
         if (parts != null) {
             engine.setHiddenVariable(REQUEST_PARTS, parts); // TODO add to docs
         }
-        for (FeatureSection fs : feature.getSections()) {
-            if (fs.isOutline()) {
-                runtime.logger.warn("skipping scenario outline - {}:{}", feature, fs.getScenarioOutline().getLine());
+        return engine;
+    }
+
+    // only variables (re) assigned by the scenario need to be detached and written
+    // back, the rest are either the same objects as in globals (updated in place if
+    // at all) or the private copy of a @concurrent request, except for @lock
+    // scenarios, which are the ones expected to update global state in place
+    private void updateGlobals(ScenarioEngine engine, Map<String, Variable> before, boolean locked) {
+        if (locked) {
+            globals.putAll(engine.detachVariables(true));
+            return;
+        }
+        engine.vars.forEach((k, v) -> {
+            if (v != before.get(k)) {
+                globals.put(k, engine.detach(v, true));
+            } else if (!concurrent) {
+                engine.detach(v, false); // shared with globals, un-hook functions in place
+            }
+        });
+    }
+
+    private Response handle(Request req, ReentrantReadWriteLock lock) {
+        if (corsEnabled && "OPTIONS".equals(req.getMethod())) {
+            Response response = new Response(200);
+            response.setHeader("Allow", ALLOWED_METHODS);
+            response.setHeader("Access-Control-Allow-Origin", "*");
+            response.setHeader("Access-Control-Allow-Methods", ALLOWED_METHODS);
+            List<String> requestHeaders = req.getHeaderValues("Access-Control-Request-Headers");
+            if (requestHeaders != null) {
+                response.setHeader("Access-Control-Allow-Headers", requestHeaders);
+            }
+            return response;
+        }
+        // important for graal to work properly
+        Thread.currentThread().setContextClassLoader(runtime.featureRuntime.suite.classLoader);
+        LOCAL_REQUEST.set(req);
+        req.processBody();
+        ScenarioEngine engine = createEngine(req);
+        Map<String, Variable> before = new HashMap(engine.vars);
+        for (MockRouter.Route route : router.getCandidates(req)) {
+            if (route.isOutline()) {
+                engine.logger.warn("skipping scenario outline - {}:{}", feature, route.getSection().getScenarioOutline().getLine());
                 break;
             }
-            Scenario scenario = fs.getScenario();
-            if (isMatchingScenario(scenario, engine)) {
-                Map<String, Object> configureHeaders;
-                Variable response, responseStatus, responseHeaders, responseDelay;
-                ScenarioActions actions = new ScenarioActions(engine);
-                Result result = PASSED;
-                for (Step step : scenario.getSteps()) {
-                    result = StepRuntime.execute(step, actions);
-                    if (result.isAborted()) {
-                        runtime.logger.debug("abort at {}:{}", feature, step.getLine());
-                        break;
-                    }
-                    if (result.isFailed()) {
-                        String message = "server-side scenario failed, " + feature + ":" + step.getLine()
-                                + "\n" + step.toString() + "\n" + result.getError().getMessage();
-                        runtime.logger.error(message);
-                        break;
-                    }
-                }
-                engine.mockAfterScenario();
-                configureHeaders = engine.mockConfigureHeaders();
-                response = engine.vars.remove(ScenarioEngine.RESPONSE);
-                responseStatus = engine.vars.remove(ScenarioEngine.RESPONSE_STATUS);
-                responseHeaders = engine.vars.remove(ScenarioEngine.RESPONSE_HEADERS);
-                responseDelay = engine.vars.remove(RESPONSE_DELAY);
-                globals.putAll(engine.detachVariables(true));
-                Response res = new Response(200);
-                if (result.isFailed()) {
-                    response = new Variable(result.getError().getMessage());
-                    responseStatus = new Variable(500);
-                } else {
-                    if (corsEnabled) {
-                        res.setHeader("Access-Control-Allow-Origin", "*");
-                    }
-                    res.setHeaders(configureHeaders);
-                    if (responseHeaders != null && responseHeaders.isMap()) {
-                        res.setHeaders(responseHeaders.getValue());
-                    }
-                    if (responseDelay != null) {
-                        res.setDelay(responseDelay.getAsInt());
-                    }
-                }
-                if (response != null && !response.isNull()) {
-                    res.setBody(response.getAsByteArray());
-                    if (res.getContentType() == null) {
-                        ResourceType rt = ResourceType.fromObject(response.getValue());
-                        if (rt != null) {
-                            res.setContentType(rt.contentType);
-                        }
-                    }
-                }
-                if (responseStatus != null) {
-                    res.setStatus(responseStatus.getAsInt());
+            Scenario scenario = route.getScenario();
+            if (isMatchingScenario(route, req, engine)) {
+                if (lock != null && scenario.getTagsEffective().contains(LOCK)) {
+                    lock.readLock().unlock();
+                    lock.writeLock().lock();
+                    // globals may have changed while waiting, so start over from the latest
+                    engine = createEngine(req);
+                    before = new HashMap(engine.vars);
+                    isMatchingScenario(route, req, engine); // for path params
                 }
-                return res;
+                boolean locked = lock != null && lock.isWriteLockedByCurrentThread();
+                return execute(scenario, engine, before, locked);
             }
         }
-        runtime.logger.warn("no scenarios matched, returning 404: {}", req);
+        engine.logger.warn("no scenarios matched, returning 404: {}", req);
         return new Response(404);
     }
 
-    private boolean isMatchingScenario(Scenario scenario, ScenarioEngine engine) {
-        String expression = StringUtils.trimToNull(scenario.getName() + scenario.getDescription());
+    private Response execute(Scenario scenario, ScenarioEngine engine, Map<String, Variable> before, boolean locked) {
+        Map<String, Object> configureHeaders;
+        Variable response, responseStatus, responseHeaders, responseDelay;
+        ScenarioActions actions = new ScenarioActions(engine);
+        Result result = PASSED;
+        for (Step step : scenario.getSteps()) {
+            result = StepRuntime.execute(step, actions);
+            if (result.isAborted()) {
+                engine.logger.debug("abort at {}:{}", feature, step.getLine());
+                break;
+            }
+            if (result.isFailed()) {
+                String message = "server-side scenario failed, " + feature + ":" + step.getLine()
+                        + "\n" + step.toString() + "\n" + result.getError().getMessage();
+                engine.logger.error(message);
+                break;
+            }
+        }
+        engine.mockAfterScenario();
+        configureHeaders = engine.mockConfigureHeaders();
+        response = engine.vars.remove(ScenarioEngine.RESPONSE);
+        responseStatus = engine.vars.remove(ScenarioEngine.RESPONSE_STATUS);
+        responseHeaders = engine.vars.remove(ScenarioEngine.RESPONSE_HEADERS);
+        responseDelay = engine.vars.remove(RESPONSE_DELAY);
+        updateGlobals(engine, before, locked);
+        Response res = new Response(200);
+        if (result.isFailed()) {
+            response = new Variable(result.getError().getMessage());
+            responseStatus = new Variable(500);
+        } else {
+            if (corsEnabled) {
+                res.setHeader("Access-Control-Allow-Origin", "*");
+            }
+            res.setHeaders(configureHeaders);
+            if (responseHeaders != null && responseHeaders.isMap()) {
+                res.setHeaders(responseHeaders.getValue());
+            }
+            if (responseDelay != null) {
+                res.setDelay(responseDelay.getAsInt());
+            }
+        }
+        if (response != null && !response.isNull()) {
+            res.setBody(response.getAsByteArray());
+            if (res.getContentType() == null) {
+                ResourceType rt = ResourceType.fromObject(response.getValue());
+                if (rt != null) {
+                    res.setContentType(rt.contentType);
+                }
+            }
+        }
+        if (responseStatus != null) {
+            res.setStatus(responseStatus.getAsInt());
+        }
+        return res;
+    }
+
+    private boolean isMatchingScenario(MockRouter.Route route, Request req, ScenarioEngine engine) {
+        Scenario scenario = route.getScenario();
+        String expression = route.getExpression();
         if (expression == null) {
             engine.logger.debug("default scenario matched at line: {}", scenario.getLine());
             return true;
         }
         try {
-            Variable v = engine.evalJs(expression);
-            if (v.isTrue()) {
+            boolean matched = route.isCompiled() ? route.matches(req, engine) : engine.evalJs(expression).isTrue();
+            if (matched) {
                 engine.logger.debug("scenario matched at line {}: {}", scenario.getLine(), expression);
                 return true;
             } else {
@@ -239,7 +322,8 @@ public class MockHandler implements ServerHandler {
 
     public boolean pathMatches(String pattern) {
         String uri = LOCAL_REQUEST.get().getPath();
-        Map<String, String> pathParams = HttpUtils.parseUriPattern(pattern, uri);
+        List<String> segments = patterns.computeIfAbsent(pattern, HttpUtils::splitUriPath);
+        Map<String, String> pathParams = HttpUtils.parseUriPattern(segments, uri);
         if (pathParams == null) {
             return false;
         } else {
@@ -0,0 +1,254 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.StringUtils;
+import com.intuit.karate.http.HttpUtils;
+import com.intuit.karate.http.Request;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * routes for the scenarios of a mock, in feature order. the common request
+ * matchers such as pathMatches('/cats/{id}') && methodIs('get') are
+ * recognized when the mock is loaded and evaluated in java, and only the
+ * remaining scenarios need a js evaluation per request
+ *
+ * @author pthomas3
+ */
+public class MockRouter {
+
+    private static final Pattern CONDITION = Pattern.compile(
+            "\\s*(pathMatches|methodIs|paramExists|typeContains|acceptContains)\\s*\\(\\s*(?:'([^'\\\\]*)'|\"([^\"\\\\]*)\")\\s*\\)\\s*");
+
+    private final List<Route> routes;
+    // candidates for a given method and path-length, in feature order
+    private final Map<String, List<Route>> index = new ConcurrentHashMap();
+
+    public MockRouter(Feature feature) {
+        List<Route> list = new ArrayList();
+        for (FeatureSection fs : feature.getSections()) {
+            list.add(new Route(fs));
+            if (fs.isOutline()) {
+                break;
+            }
+        }
+        routes = Collections.unmodifiableList(list);
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public List<Route> getCandidates(Request request) {
+        String path = request.getPath();
+        int qpos = path.indexOf('?'); // as in HttpUtils.parseUriPattern()
+        if (qpos != -1) {
+            path = path.substring(0, qpos);
+        }
+        int length = HttpUtils.splitUriPath(path).size();
+        String method = request.getMethod().toUpperCase();
+        return index.computeIfAbsent(method + ":" + length, k -> {
+            List<Route> list = new ArrayList();
+            for (Route route : routes) {
+                if (route.mayMatch(method, length)) {
+                    list.add(route);
+                }
+            }
+            return list;
+        });
+    }
+
+    private static class Condition {
+
+        final String name;
+        final String arg;
+        final List<String> path;
+
+        Condition(String name, String arg) {
+            this.name = name;
+            this.arg = arg;
+            path = MockHandler.PATH_MATCHES.equals(name) ? HttpUtils.splitUriPath(arg) : null;
+        }
+
+        boolean test(Request request, ScenarioEngine engine) {
+            switch (name) {
+                case MockHandler.PATH_MATCHES:
+                    Map<String, String> pathParams = HttpUtils.parseUriPattern(path, request.getPath());
+                    if (pathParams == null) {
+                        return false;
+                    }
+                    engine.setVariable(MockHandler.PATH_PARAMS, pathParams);
+                    return true;
+                case MockHandler.METHOD_IS:
+                    return request.getMethod().equalsIgnoreCase(arg);
+                case MockHandler.PARAM_EXISTS:
+                    Map<String, List<String>> params = request.getParams();
+                    return params == null ? false : params.containsKey(arg);
+                case MockHandler.TYPE_CONTAINS:
+                    String contentType = request.getContentType();
+                    return contentType == null ? false : contentType.contains(arg);
+                default: // accept contains
+                    String accept = request.getHeader("Accept");
+                    return accept == null ? false : accept.contains(arg);
+            }
+        }
+
+    }
+
+    public static class Route {
+
+        private final FeatureSection section;
+        private final String expression;
+        private final List<Condition> conditions; // null if js has to be evaluated
+        private final String method;
+        private final int pathLength;
+
+        Route(FeatureSection section) {
+            this.section = section;
+            if (section.isOutline()) {
+                expression = null;
+                conditions = null;
+                method = null;
+                pathLength = -1;
+                return;
+            }
+            Scenario scenario = section.getScenario();
+            expression = StringUtils.trimToNull(scenario.getName() + scenario.getDescription());
+            conditions = expression == null ? Collections.emptyList() : compile(expression);
+            String tempMethod = null;
+            int tempLength = -1;
+            if (conditions != null) {
+                for (Condition c : conditions) {
+                    if (c.path != null && tempLength == -1) {
+                        tempLength = c.path.size();
+                    } else if (MockHandler.METHOD_IS.equals(c.name) && tempMethod == null) {
+                        tempMethod = c.arg.toUpperCase();
+                    }
+                }
+            }
+            method = tempMethod;
+            pathLength = tempLength;
+        }
+
+        private static List<Condition> compile(String expression) {
+            // anything other than "a && b" such as "a || b" or "!a" is left to js
+            List<String> terms = splitAnd(expression);
+            if (terms == null) {
+                return null;
+            }
+            List<Condition> list = new ArrayList(terms.size());
+            for (String term : terms) {
+                Matcher matcher = CONDITION.matcher(term);
+                if (!matcher.matches()) {
+                    return null;
+                }
+                String arg = matcher.group(2) == null ? matcher.group(3) : matcher.group(2);
+                list.add(new Condition(matcher.group(1), arg));
+            }
+            return list;
+        }
+
+        // splits on the "&&" that are not within quotes or brackets, and returns
+        // null if the expression is not well-formed enough to be sure of that
+        static List<String> splitAnd(String expression) {
+            List<String> terms = new ArrayList();
+            int length = expression.length();
+            int depth = 0;
+            char quote = 0;
+            int start = 0;
+            for (int i = 0; i < length; i++) {
+                char c = expression.charAt(i);
+                if (quote != 0) {
+                    if (c == '\\') {
+                        i++;
+                    } else if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '\'' || c == '"' || c == '`') {
+                    quote = c;
+                } else if (c == '(' || c == '[' || c == '{') {
+                    depth++;
+                } else if (c == ')' || c == ']' || c == '}') {
+                    if (--depth < 0) {
+                        return null;
+                    }
+                } else if (c == '&' && depth == 0 && i + 1 < length && expression.charAt(i + 1) == '&') {
+                    terms.add(expression.substring(start, i));
+                    start = i + 2;
+                    i++;
+                }
+            }
+            if (quote != 0 || depth != 0) {
+                return null;
+            }
+            terms.add(expression.substring(start));
+            return terms;
+        }
+
+        boolean mayMatch(String requestMethod, int requestPathLength) {
+            if (method != null && !method.equals(requestMethod)) {
+                return false;
+            }
+            return pathLength == -1 || pathLength == requestPathLength;
+        }
+
+        public boolean isOutline() {
+            return section.isOutline();
+        }
+
+        public boolean isCompiled() {
+            return conditions != null;
+        }
+
+        public Scenario getScenario() {
+            return section.getScenario();
+        }
+
+        public FeatureSection getSection() {
+            return section;
+        }
+
+        public String getExpression() {
+            return expression;
+        }
+
+        // conditions are evaluated left to right and short-circuit, like the js
+        public boolean matches(Request request, ScenarioEngine engine) {
+            for (Condition c : conditions) {
+                if (!c.test(request, engine)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -28,6 +28,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,11 +44,19 @@ public abstract class ParallelProcessor<T> {
     private final ExecutorService monitor;
     private final Iterator<T> publisher;
     private final List<CompletableFuture> futures = new ArrayList();
+    private final Semaphore pending; // null if unbounded
 
     public ParallelProcessor(ExecutorService executor, Iterator<T> publisher, ExecutorService monitor) {
+        this(executor, publisher, monitor, -1);
+    }
+
+    // a max-pending > 0 means the publisher is not read ahead of the executor
+    // by more than that many items, e.g. when the items are streamed from a file
+    public ParallelProcessor(ExecutorService executor, Iterator<T> publisher, ExecutorService monitor, int maxPending) {
         this.executor = executor;
         this.publisher = publisher;
         this.monitor = monitor;
+        pending = maxPending > 0 ? new Semaphore(maxPending) : null;
     }
 
     public void execute() {
@@ -55,15 +64,22 @@ public abstract class ParallelProcessor<T> {
             if (shouldRunSynchronously(in)) {
                 process(in);
             } else {
+                if (pending != null) {
+                    pending.acquireUninterruptibly();
+                }
                 final CompletableFuture future = new CompletableFuture();
                 futures.add(future);
                 executor.submit(() -> {
                     try {
                         process(in);
-                    } catch (Exception e) {
-                        logger.error("[parallel] input item failed: {}", e.getMessage());
+                    } catch (Throwable t) { // e.g. a stack-overflow
+                        logger.error("[parallel] input item failed: {}", t.getMessage());
+                    } finally {
+                        if (pending != null) {
+                            pending.release();
+                        }
+                        future.complete(Boolean.TRUE);
                     }
-                    future.complete(Boolean.TRUE);
                 });
             }
         });
@@ -0,0 +1,187 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.JsonUtils;
+import com.intuit.karate.resource.FileResource;
+import com.intuit.karate.resource.JarResource;
+import com.intuit.karate.resource.Resource;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.concurrent.atomic.LongAdder;
+import org.w3c.dom.Node;
+
+/**
+ * suite-wide cache of test-data files (json, xml, csv, yaml etc.) that holds
+ * the text and the parsed form, callers always get a copy of the parsed form
+ * so that changes made by a scenario never make it back into the cache. the
+ * least recently used files are evicted once the total size crosses a limit
+ *
+ * @author pthomas3
+ */
+public class ResourceCache {
+
+    private static final int MAX_SIZE = 64 * 1024 * 1024; // chars (or bytes)
+    private static final int MAX_ENTRY_SIZE = MAX_SIZE / 8;
+    private static final String BYTES = "bytes:";
+
+    private final Map<String, Entry> entries = new LinkedHashMap(16, 0.75f, true); // access order
+    private int size;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static class Entry {
+
+        final String text;
+        final byte[] bytes;
+        volatile Object parsed;
+
+        Entry(String text, byte[] bytes) {
+            this.text = text;
+            this.bytes = bytes;
+        }
+
+        int size() {
+            return text == null ? bytes.length : text.length();
+        }
+
+    }
+
+    static String toKey(Resource resource) {
+        if (resource instanceof FileResource) {
+            // a file can change while a suite is in progress, e.g. in debug mode
+            File file = resource.getFile();
+            return file.getAbsolutePath() + ":" + file.lastModified() + ":" + file.length();
+        } else if (resource instanceof JarResource) {
+            return resource.getUri().toString();
+        }
+        return null; // e.g. in-memory, not safe to cache
+    }
+
+    private synchronized Entry getEntry(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void putEntry(String key, Entry entry) {
+        int entrySize = entry.size();
+        if (entrySize > MAX_ENTRY_SIZE) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            size -= previous.size();
+        }
+        size += entrySize;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (size > MAX_SIZE && iterator.hasNext()) {
+            Entry eldest = iterator.next();
+            size -= eldest.size();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    public String getText(Resource resource) {
+        String key = toKey(resource);
+        if (key == null) {
+            return FileUtils.toString(resource.getStream());
+        }
+        Entry entry = getEntry(key);
+        if (entry == null || entry.text == null) {
+            misses.increment();
+            entry = new Entry(FileUtils.toString(resource.getStream()), null);
+            putEntry(key, entry);
+        } else {
+            hits.increment();
+        }
+        return entry.text;
+    }
+
+    public byte[] getBytes(Resource resource) {
+        String key = toKey(resource);
+        if (key == null) {
+            return FileUtils.toBytes(resource.getStream());
+        }
+        key = BYTES + key; // a file can be read both ways, as text and as bytes
+        Entry entry = getEntry(key);
+        if (entry == null || entry.bytes == null) {
+            misses.increment();
+            entry = new Entry(null, FileUtils.toBytes(resource.getStream()));
+            putEntry(key, entry);
+        } else {
+            hits.increment();
+        }
+        return entry.bytes.clone();
+    }
+
+    /**
+     * the text is what getText() returned, and the parser is called at most
+     * once per file (unless evicted) and has to return plain data (maps,
+     * lists, xml) that does not depend on the scenario variables, e.g. the
+     * file should not have embedded expressions
+     */
+    public Object getParsed(Resource resource, String text, Function<String, Object> parser) {
+        String key = toKey(resource);
+        Entry entry = key == null ? null : getEntry(key);
+        if (entry == null || entry.text == null) { // not cached or evicted
+            return parser.apply(text);
+        }
+        Object parsed = entry.parsed;
+        if (parsed == null) {
+            parsed = parser.apply(entry.text);
+            entry.parsed = parsed;
+        }
+        return copy(parsed);
+    }
+
+    private static Object copy(Object o) {
+        if (o instanceof Map || o instanceof List) {
+            return JsonUtils.deepCopy(o);
+        } else if (o instanceof Node) {
+            synchronized (o) { // the dom is not thread-safe even for reads
+                return ((Node) o).cloneNode(true);
+            }
+        } else {
+            return o;
+        }
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> map = new HashMap(5);
+        map.put("files", entries.size());
+        map.put("size", size);
+        map.put("hits", hits.sum());
+        map.put("misses", misses.sum());
+        map.put("evictions", evictions.sum());
+        return map;
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.JsonUtils;
+import com.intuit.karate.KarateException;
+import com.intuit.karate.StringUtils;
+import com.intuit.karate.resource.Resource;
+import de.siegmar.fastcsv.reader.CsvParser;
+import de.siegmar.fastcsv.reader.CsvReader;
+import de.siegmar.fastcsv.reader.CsvRow;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * reads the rows of a csv or json-lines (one json object per line) file one
+ * at a time, so that a dynamic scenario outline can be driven by a data file
+ * of any size without holding all the rows in memory. the file is closed once
+ * the last row has been read or when close() is called
+ *
+ * @author pthomas3
+ */
+public class RowSource implements Iterator<Map<String, Object>>, Closeable {
+
+    private final String name;
+    private final BufferedReader reader;
+    private final CsvParser csv; // null if json-lines
+    private Map<String, Object> next;
+    private boolean closed;
+    private int count;
+
+    private RowSource(Resource resource, boolean isCsv) {
+        name = resource.getRelativePath();
+        reader = new BufferedReader(new InputStreamReader(resource.getStream(), StandardCharsets.UTF_8));
+        if (isCsv) {
+            CsvReader csvReader = new CsvReader();
+            csvReader.setContainsHeader(true);
+            try {
+                csv = csvReader.parse(reader);
+            } catch (IOException e) {
+                close();
+                throw new KarateException("failed to read csv: " + name, e);
+            }
+        } else {
+            csv = null;
+        }
+    }
+
+    public static boolean isSupported(String path) {
+        return isCsv(path) || isJsonLines(path);
+    }
+
+    private static boolean isCsv(String path) {
+        return path.toLowerCase().endsWith(".csv");
+    }
+
+    private static boolean isJsonLines(String path) {
+        String lower = path.toLowerCase();
+        return lower.endsWith(".jsonl") || lower.endsWith(".ndjson");
+    }
+
+    public static RowSource of(Resource resource) {
+        String path = resource.getRelativePath();
+        if (!isSupported(path)) {
+            throw new KarateException("only csv or json-lines (.jsonl) files can be read as rows: " + path);
+        }
+        return new RowSource(resource, isCsv(path));
+    }
+
+    private Map<String, Object> readRow() throws IOException {
+        if (csv != null) {
+            CsvRow row = csv.nextRow();
+            return row == null ? null : new LinkedHashMap(row.getFieldMap());
+        }
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = StringUtils.trimToNull(line);
+            if (line == null) { // blank lines are ignored
+                continue;
+            }
+            Object o = JsonUtils.fromJson(line);
+            if (o instanceof Map) {
+                return (Map) o;
+            }
+            throw new KarateException(name + " line is not a json object: " + line);
+        }
+        return null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+        try {
+            next = readRow();
+        } catch (IOException e) {
+            close();
+            throw new KarateException("failed to read row " + count + " from: " + name, e);
+        }
+        if (next == null) {
+            close();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map<String, Object> row = next;
+        next = null;
+        count++;
+        return row;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            reader.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "rows: " + name + " (" + count + " read)";
+    }
+
+}
@@ -31,8 +31,8 @@ import com.intuit.karate.Logger;
 import com.intuit.karate.Match;
 import com.intuit.karate.MatchStep;
 import com.intuit.karate.PerfContext;
-import com.intuit.karate.StringUtils;
 import com.intuit.karate.XmlUtils;
+import com.intuit.karate.graal.JsFunction;
 import com.intuit.karate.graal.JsList;
 import com.intuit.karate.graal.JsMap;
 import com.intuit.karate.graal.JsValue;
@@ -43,7 +43,11 @@ import com.intuit.karate.http.ResourceType;
 import com.intuit.karate.http.WebSocketClient;
 import com.intuit.karate.http.WebSocketOptions;
 import com.intuit.karate.shell.Command;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -132,6 +136,29 @@ public class ScenarioBridge implements PerfContext {
         return new JsList(list);
     }
 
+    public Object await(Value value) {
+        Object o = JsValue.toJava(value);
+        if (!(o instanceof HttpFuture)) {
+            throw new RuntimeException("not the result of karate.httpAsync(): " + o);
+        }
+        return JsValue.fromJava(getEngine().await((HttpFuture) o));
+    }
+
+    public Object awaitAll(Value value) {
+        Object o = JsValue.toJava(value);
+        if (!(o instanceof List)) {
+            throw new RuntimeException("await all argument has to be a list: " + o);
+        }
+        List<HttpFuture> calls = new ArrayList();
+        for (Object item : (List) o) {
+            if (!(item instanceof HttpFuture)) {
+                throw new RuntimeException("not the result of karate.httpAsync(): " + item);
+            }
+            calls.add((HttpFuture) item);
+        }
+        return JsValue.fromJava(getEngine().awaitAll(calls));
+    }
+
     public Object call(String fileName) {
         return call(false, fileName, null);
     }
@@ -185,25 +212,10 @@ public class ScenarioBridge implements PerfContext {
             engine.logger.info(">> lock acquired, begin callSingle: {}", fileName);
             int minutes = engine.getConfig().getCallSingleCacheMinutes();
             Object result = null;
-            File cacheFile = null;
+            CallSingleCache diskCache = null;
             if (minutes > 0) {
-                String cleanedName = StringUtils.toIdString(fileName);
-                String cacheFileName = engine.getConfig().getCallSingleCacheDir() + File.separator + cleanedName + ".txt";
-                cacheFile = new File(cacheFileName);
-                long since = System.currentTimeMillis() - minutes * 60 * 1000;
-                if (cacheFile.exists()) {
-                    long lastModified = cacheFile.lastModified();
-                    if (lastModified > since) {
-                        String json = FileUtils.toString(cacheFile);
-                        result = JsonUtils.fromJson(json);
-                        engine.logger.info("callSingleCache hit: {}", cacheFile);
-                    } else {
-                        engine.logger.info("callSingleCache stale, last modified {} - is before {} (minutes: {})",
-                                lastModified, since, minutes);
-                    }
-                } else {
-                    engine.logger.info("callSingleCache file does not exist, will create: {}", cacheFile);
-                }
+                diskCache = new CallSingleCache(engine.getConfig().getCallSingleCacheDir(), fileName);
+                result = diskCache.read(minutes, engine.logger);
             }
             if (result == null) {
                 Variable called = new Variable(read(fileName));
@@ -223,17 +235,15 @@ public class ScenarioBridge implements PerfContext {
                     resultVar = new Variable(re); // will be thrown at end
                     engine.logger.warn("callSingle() will cache an exception");
                 }
-                if (minutes > 0) { // cacheFile will be not null
-                    if (resultVar.isMapOrList()) {
-                        String json = resultVar.getAsString();
-                        FileUtils.writeToFile(cacheFile, json);
-                        engine.logger.info("callSingleCache write: {}", cacheFile);
-                    } else {
-                        engine.logger.warn("callSingleCache write failed, not json-like: {}", resultVar);
-                    }
+                if (resultVar.isJsFunction()) {
+                    result = new JsFunction(resultVar.<Value>getValue());
+                } else {
+                    result = resultVar.getValue();
+                    engine.recurseAndDetach(result);
+                }
+                if (diskCache != null && !(result instanceof Exception)) {
+                    diskCache.write(result, minutes, engine.logger);
                 }
-                result = resultVar.getValue();
-                engine.recurseAndDetach(result);
             }
             CACHE.put(fileName, result);
             engine.logger.info("<< lock released, cached callSingle: {}", fileName);
@@ -251,6 +261,17 @@ public class ScenarioBridge implements PerfContext {
         return JsValue.fromJava(v.getValue());
     }
 
+    public Object callSuiteOnce(String path) {
+        return callSuiteOnce(false, path);
+    }
+
+    public Object callSuiteOnce(boolean sharedScope, String path) {
+        ScenarioEngine engine = getEngine();
+        Variable called = new Variable(engine.fileReader.readFile(path));
+        Variable v = engine.callSuiteOnce(called, sharedScope);
+        return JsValue.fromJava(v.getValue());
+    }
+
     @Override
     public void capturePerfEvent(String name, long startTime, long endTime) {
         PerfEvent event = new PerfEvent(startTime, endTime, name, 200);
@@ -261,6 +282,31 @@ public class ScenarioBridge implements PerfContext {
         getEngine().configure(key, new Variable(value));
     }
 
+    public String digest(Value value) {
+        return digest(value, "SHA-256");
+    }
+
+    public String digest(Value value, String algorithm) {
+        Object o = JsValue.toJava(value);
+        InputStream is;
+        if (o instanceof File) { // e.g. a response that was too big to hold in memory
+            try {
+                is = new FileInputStream((File) o);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        } else if (o instanceof byte[]) {
+            is = new ByteArrayInputStream((byte[]) o);
+        } else {
+            is = FileUtils.toInputStream(new Variable(o).getAsString());
+        }
+        try (InputStream temp = is) {
+            return FileUtils.toDigest(temp, algorithm);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public void embed(Object o, String contentType) {
         ResourceType resourceType;
         if (contentType == null) {
@@ -513,6 +559,14 @@ public class ScenarioBridge implements PerfContext {
         return new HttpRequestBuilder(client).url(url);
     }
 
+    public HttpFuture httpAsync(Value value) {
+        Object o = JsValue.toJava(value);
+        if (!(o instanceof Map)) {
+            throw new RuntimeException("http async argument has to be a map: " + o);
+        }
+        return getEngine().httpAsync((Map) o);
+    }
+
     public Object jsonPath(Object o, String exp) {
         Json json = Json.of(o);
         return JsValue.fromJava(json.get(exp));
@@ -637,6 +691,10 @@ public class ScenarioBridge implements PerfContext {
         return getEngine().fileReader.readFileAsString(fileName);
     }
 
+    public RowSource readRows(String fileName) {
+        return getEngine().fileReader.readFileAsRows(fileName);
+    }
+
     public void remove(String name, String path) {
         getEngine().remove(name, path);
     }
@@ -679,7 +737,9 @@ public class ScenarioBridge implements PerfContext {
     }
 
     public Object sizeOf(Value v) {
-        if (v.hasArrayElements()) {
+        if (v.isHostObject() && v.asHostObject() instanceof File) {
+            return ((File) v.asHostObject()).length();
+        } else if (v.hasArrayElements()) {
             return v.getArraySize();
         } else if (v.hasMembers()) {
             return v.getMemberKeys().size();
@@ -772,6 +832,11 @@ public class ScenarioBridge implements PerfContext {
         return JsonUtils.toCsv(list);
     }
 
+    // for large uploads, the file is streamed when the request is sent
+    public File toFile(String path) {
+        return toJavaFile(path);
+    }
+
     public Object toJava(Value value) {
         if (value.canExecute()) {
             return new ScenarioListener(getEngine(), value);
@@ -55,6 +55,7 @@ import java.io.InputStream;
 import java.security.KeyStore;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -304,6 +305,9 @@ public class ScenarioEngine {
         if (requestBuilder != null) {
             requestBuilder.client.setConfig(config);
         }
+        if (asyncClient != null) {
+            asyncClient.setConfig(config);
+        }
     }
 
     public HttpRequest getRequest() {
@@ -339,7 +343,10 @@ public class ScenarioEngine {
             logger.warn("did not evaluate to map {}: {}", exp, var);
             return;
         }
-        Map<String, Object> map = var.getValue();
+        forEachAsList(var.getValue(), fun);
+    }
+
+    private static void forEachAsList(Map<String, Object> map, BiConsumer<String, List<String>> fun) {
         map.forEach((k, v) -> {
             if (v instanceof List) {
                 List list = (List) v;
@@ -542,58 +549,93 @@ public class ScenarioEngine {
     }
 
     private void httpInvokeOnce() {
+        request = buildRequest(requestBuilder);
+        String perfEventName = beforeHttpCall(request);
+        Response temp;
+        try {
+            temp = requestBuilder.client.invoke(request);
+        } catch (Exception e) {
+            throw httpCallFailed(request, perfEventName, System.currentTimeMillis(), e);
+        }
+        afterHttpCall(request, temp, perfEventName);
+    }
+
+    private HttpRequest buildRequest(HttpRequestBuilder builder) {
         Map<String, Map> cookies = getOrEvalAsMap(config.getCookies());
         if (cookies != null) {
-            requestBuilder.cookies(cookies.values());
+            builder.cookies(cookies.values());
         }
         Map<String, Object> headers;
         if (config.getHeaders().isJsOrJavaFunction()) {
-            headers = getOrEvalAsMap(config.getHeaders(), requestBuilder.build());
+            headers = getOrEvalAsMap(config.getHeaders(), builder.build());
         } else {
             headers = getOrEvalAsMap(config.getHeaders()); // avoid an extra http request build
         }
         if (headers != null) {
-            requestBuilder.headers(headers);
+            builder.headers(headers);
         }
-        request = requestBuilder.build();
-        String perfEventName = null; // acts as a flag to report perf if not null
+        return builder.build();
+    }
+
+    // returns the perf event name, which acts as a flag to report perf if not null
+    private String beforeHttpCall(HttpRequest request) {
+        String perfEventName = null;
         if (runtime.perfMode) {
             perfEventName = runtime.featureRuntime.perfHook.getPerfEventName(request, runtime);
         }
-        long startTime = System.currentTimeMillis();
-        request.setStartTimeMillis(startTime); // this may be fine-adjusted by actual http client
+        request.setStartTimeMillis(System.currentTimeMillis()); // this may be fine-adjusted by actual http client
         if (hooks != null) {
             hooks.forEach(h -> h.beforeHttpCall(request, runtime));
         }
-        try {
-            response = requestBuilder.client.invoke(request);
-        } catch (Exception e) {
-            long endTime = System.currentTimeMillis();
-            long responseTime = endTime - startTime;
-            String message = "http call failed after " + responseTime + " milliseconds for url: " + request.getUrl();
-            logger.error(e.getMessage() + ", " + message);
-            if (perfEventName != null) {
-                PerfEvent pe = new PerfEvent(startTime, endTime, perfEventName, 0);
-                capturePerfEvent(pe); // failure flag and message should be set by logLastPerfEvent()
-            }
-            throw new KarateException(message, e);
+        return perfEventName;
+    }
+
+    private KarateException httpCallFailed(HttpRequest request, String perfEventName, long endTime, Throwable e) {
+        long startTime = request.getStartTimeMillis();
+        long responseTime = endTime - startTime;
+        String message = "http call failed after " + responseTime + " milliseconds for url: " + request.getUrl();
+        logger.error(e.getMessage() + ", " + message);
+        if (perfEventName != null) {
+            PerfEvent pe = new PerfEvent(startTime, endTime, perfEventName, 0);
+            capturePerfEvent(pe); // failure flag and message should be set by logLastPerfEvent()
         }
+        return new KarateException(message, e);
+    }
+
+    private void afterHttpCall(HttpRequest request, Response response, String perfEventName) {
+        this.request = request;
+        this.response = response;
         if (hooks != null) {
             hooks.forEach(h -> h.afterHttpCall(request, response, runtime));
         }
-        byte[] bytes = response.getBody();
+        File bodyFile = response.getBodyFile(); // if too big to hold in memory
+        byte[] bytes = bodyFile == null ? response.getBody() : null;
         Object body;
         String responseType;
         ResourceType resourceType = response.getResourceType();
-        if (resourceType != null && resourceType.isBinary()) {
+        String parsing = config.getResponseParsing();
+        if (bodyFile != null) {
+            responseType = "file";
+            body = bodyFile;
+            if (tempFiles == null) {
+                tempFiles = new ArrayList();
+            }
+            tempFiles.add(bodyFile);
+        } else if (resourceType != null && resourceType.isBinary()) {
             responseType = "binary";
             body = bytes;
+        } else if (Config.RESPONSE_PARSING_NONE.equals(parsing)) {
+            responseType = "string";
+            body = FileUtils.toString(bytes);
         } else {
-            try {
-                body = JsValue.fromBytes(bytes, true, resourceType);
-            } catch (Exception e) {
-                body = FileUtils.toString(bytes);
-                logger.warn("auto-conversion of response failed: {}", e.getMessage());
+            body = Config.RESPONSE_PARSING_LAZY.equals(parsing) ? LazyJson.of(bytes, resourceType) : null;
+            if (body == null) {
+                try {
+                    body = JsValue.fromBytes(bytes, true, resourceType);
+                } catch (Exception e) {
+                    body = FileUtils.toString(bytes);
+                    logger.warn("auto-conversion of response failed: {}", e.getMessage());
+                }
             }
             if (body instanceof Map || body instanceof List) {
                 responseType = "json";
@@ -612,18 +654,96 @@ public class ScenarioEngine {
         }
         setHiddenVariable(RESPONSE_BYTES, bytes);
         setHiddenVariable(RESPONSE_TYPE, responseType);
-        cookies = response.getCookies();
+        Map<String, Map> cookies = response.getCookies();
         updateConfigCookies(cookies);
         setHiddenVariable(RESPONSE_COOKIES, cookies);
-        startTime = request.getStartTimeMillis(); // in case it was re-adjusted by http client
+        long startTime = request.getStartTimeMillis(); // in case it was re-adjusted by http client
         long endTime = request.getEndTimeMillis();
         setHiddenVariable(REQUEST_TIME_STAMP, startTime);
         setHiddenVariable(RESPONSE_TIME, endTime - startTime);
         if (perfEventName != null) {
             PerfEvent pe = new PerfEvent(startTime, endTime, perfEventName, response.getStatus());
             capturePerfEvent(pe);
+        }
+    }
+
+    // async http ==============================================================
+    //
+    private ArmeriaHttpClient asyncClient; // created on first use
+
+    public HttpFuture httpAsync(Map<String, Object> map) {
+        if (asyncClient == null) { // re-use the web-clients of the suite if it has them
+            HttpClientFactory factory = runtime.featureRuntime.suite.clientFactory;
+            ArmeriaClientCache clientCache = factory instanceof ArmeriaHttpClientFactory
+                    ? ((ArmeriaHttpClientFactory) factory).getClientCache() : ArmeriaClientCache.SHARED;
+            asyncClient = new ArmeriaHttpClient(config, logger, clientCache);
+        }
+        HttpRequestBuilder builder = new HttpRequestBuilder(asyncClient);
+        Object url = map.get("url");
+        builder.url(url == null ? null : url.toString());
+        Object path = map.get("path");
+        if (path instanceof List) {
+            for (Object o : (List) path) {
+                builder.path(o == null ? null : o.toString());
+            }
+        } else if (path != null) {
+            builder.path(path.toString());
+        }
+        Object params = map.get("params");
+        if (params instanceof Map) {
+            forEachAsList((Map) params, (k, v) -> builder.param(k, v));
+        }
+        Object headers = map.get("headers");
+        if (headers instanceof Map) {
+            forEachAsList((Map) headers, (k, v) -> builder.header(k, v));
+        }
+        builder.body(map.get("body"));
+        Object method = map.get("method");
+        builder.method(method == null ? "GET" : method.toString().toUpperCase());
+        HttpRequest asyncRequest = buildRequest(builder);
+        String perfEventName = beforeHttpCall(asyncRequest);
+        return new HttpFuture(asyncRequest, perfEventName, asyncClient.invokeAsync(asyncRequest));
+    }
+
+    // waits for all calls before processing any, so a slow call never holds up the others
+    public List<Map<String, Object>> awaitAll(List<HttpFuture> calls) {
+        CompletableFuture[] futures = new CompletableFuture[calls.size()];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = calls.get(i).future;
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            // reported by await() below, in order
+        }
+        List<Map<String, Object>> results = new ArrayList(calls.size());
+        for (HttpFuture call : calls) {
+            results.add(await(call));
+        }
+        return results;
+    }
 
+    // the response variables are set as if the call was made by the "method" step
+    public Map<String, Object> await(HttpFuture call) {
+        if (call.getResult() != null) { // already collected
+            return call.getResult();
         }
+        Response temp;
+        try {
+            temp = call.future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            throw httpCallFailed(call.request, call.perfEventName, call.getFailedTimeMillis(), cause);
+        }
+        asyncClient.log(call.request, temp);
+        afterHttpCall(call.request, temp, call.perfEventName);
+        Map<String, Object> result = new LinkedHashMap(4);
+        result.put(RESPONSE_STATUS, temp.getStatus());
+        result.put(RESPONSE, vars.get(RESPONSE).getValue());
+        result.put(RESPONSE_HEADERS, vars.get(RESPONSE_HEADERS).getValue());
+        result.put(RESPONSE_TIME, call.request.getEndTimeMillis() - call.request.getStartTimeMillis());
+        call.setResult(result);
+        return result;
     }
 
     private void httpInvokeWithRetries() {
@@ -910,7 +1030,21 @@ public class ScenarioEngine {
         setHiddenVariable(KEY, Key.INSTANCE);
     }
 
+    private List<File> tempFiles; // response bodies too big to hold in memory
+
     public void stop(StepResult lastStepResult) {
+        if (tempFiles != null) {
+            if (runtime.caller.depth == 0) {
+                tempFiles.forEach(HttpUtils::deleteTempFile);
+            } else { // the caller can still refer to the response of a called feature
+                ScenarioEngine caller = runtime.caller.parentRuntime.engine;
+                if (caller.tempFiles == null) {
+                    caller.tempFiles = new ArrayList();
+                }
+                caller.tempFiles.addAll(tempFiles);
+            }
+            tempFiles = null;
+        }
         if (runtime.caller.isSharedScope()) {
             // TODO life-cycle this hand off
             ScenarioEngine caller = runtime.caller.parentRuntime.engine;
@@ -1051,29 +1185,29 @@ public class ScenarioEngine {
 
     public Map<String, Variable> detachVariables(boolean deep) { // TODO make deep the sole default
         Map<String, Variable> detached = new HashMap(vars.size());
-        vars.forEach((k, v) -> {
-            switch (v.type) {
-                case JS_FUNCTION:
-                    JsFunction jf = new JsFunction(v.getValue());
-                    v = new Variable(jf);
-                    break;
-                case MAP:
-                case LIST:
-                    if (deep) {
-                        Object o = recurseAndDetachAndDeepClone(v.getValue());
-                        v = new Variable(o);
-                    } else {
-                        recurseAndDetach(v.getValue());
-                    }
-                    break;
-                default:
-                // do nothing
-            }
-            detached.put(k, v);
-        });
+        vars.forEach((k, v) -> detached.put(k, detach(v, deep)));
         return detached;
     }
 
+    protected Variable detach(Variable v, boolean deep) {
+        switch (v.type) {
+            case JS_FUNCTION:
+                JsFunction jf = new JsFunction(v.getValue());
+                return new Variable(jf);
+            case MAP:
+            case LIST:
+                if (deep) {
+                    Object o = recurseAndDetachAndDeepClone(v.getValue());
+                    return new Variable(o);
+                } else {
+                    recurseAndDetach(v.getValue());
+                    return v;
+                }
+            default:
+                return v;
+        }
+    }
+
     protected Object recurseAndAttach(Object o) {
         if (o instanceof Value) {
             Value value = (Value) o;
@@ -1830,12 +1964,14 @@ public class ScenarioEngine {
     }
 
     public Match.Result match(Match.Type matchType, Object actual, Object expected) {
-        return Match.execute(JS, matchType, actual, expected);
+        return Match.execute(JS, matchType, actual, expected, config.getMatchEachParallelThreshold());
     }
 
     private static final Pattern VAR_AND_PATH_PATTERN = Pattern.compile("\\w+");
     private static final String VARIABLE_PATTERN_STRING = "[a-zA-Z][\\w]*";
     private static final Pattern VARIABLE_PATTERN = Pattern.compile(VARIABLE_PATTERN_STRING);
+    private static final Pattern VARIABLE_AND_SPACE_AND_PATH_PATTERN = Pattern.compile("^" + VARIABLE_PATTERN_STRING + "\\s+.+");
+    private static final Pattern XML_PATH_FUNCTION_PATTERN = Pattern.compile("^[a-z-]+\\(.+");
     private static final Pattern FUNCTION_PATTERN = Pattern.compile("^function[^(]*\\(");
     private static final Pattern JS_PLACEHODER = Pattern.compile("\\$\\{.*?\\}");
 
@@ -1852,7 +1988,7 @@ public class ScenarioEngine {
     }
 
     public static final boolean isVariableAndSpaceAndPath(String text) {
-        return text.matches("^" + VARIABLE_PATTERN_STRING + "\\s+.+");
+        return VARIABLE_AND_SPACE_AND_PATH_PATTERN.matcher(text).matches();
     }
 
     public static final boolean isVariable(String text) {
@@ -1888,7 +2024,7 @@ public class ScenarioEngine {
     }
 
     public static boolean isXmlPathFunction(String text) {
-        return text.matches("^[a-z-]+\\(.+");
+        return XML_PATH_FUNCTION_PATTERN.matcher(text).matches();
     }
 
     public static final boolean isJsonPath(String text) {
@@ -1949,8 +2085,14 @@ public class ScenarioEngine {
         return result;
     }
 
-    private Variable callOnceResult(ScenarioCall.Result result, boolean sharedScope) {
-        if (sharedScope) { // if shared scope
+    private Variable callOnceResult(ScenarioCall.Result result, boolean sharedScope, boolean perSuite) {
+        if (sharedScope && perSuite) {
+            // the snapshot holds only what the called feature defined, and the caller
+            // can be any feature in the suite, so merge instead of replacing the caller vars
+            result.vars.forEach((k, v) -> setVariable(k, recurseAndAttachAndDeepClone(v.getValue())));
+            setConfig(new Config(result.config));
+            return Variable.NULL;
+        } else if (sharedScope) { // if shared scope
             vars.clear(); // clean slate
             // deep-clone so that subsequent steps don't modify data / references being passed around
             result.vars.forEach((k, v) -> vars.put(k, v.copy(true)));
@@ -1969,36 +2111,109 @@ public class ScenarioEngine {
     }
 
     private Variable callOnce(String cacheKey, Variable called, Variable arg, boolean sharedScope) {
-        final Map<String, ScenarioCall.Result> CACHE = runtime.featureRuntime.FEATURE_CACHE;
-        ScenarioCall.Result result = CACHE.get(cacheKey);
-        if (result != null) {
-            logger.trace("callonce cache hit for: {}", cacheKey);
-            return callOnceResult(result, sharedScope);
-        }
-        long startTime = System.currentTimeMillis();
-        logger.trace("callonce waiting for lock: {}", cacheKey);
-        synchronized (CACHE) {
-            result = CACHE.get(cacheKey); // retry
-            if (result != null) {
-                long endTime = System.currentTimeMillis() - startTime;
-                logger.warn("this thread waited {} milliseconds for callonce lock: {}", endTime, cacheKey);
-                return callOnceResult(result, sharedScope);
-            }
-            // this thread is the 'winner'
-            logger.info(">> lock acquired, begin callonce: {}", cacheKey);
-            Variable resultValue = call(called, arg, sharedScope);
+        return callOnce(cacheKey, called, arg, sharedScope, runtime.featureRuntime.FEATURE_CACHE, false);
+    }
+
+    // only the first thread for a given key makes the call, any other threads
+    // wait for that key alone and calls for other keys are not held up
+    private Variable callOnce(String cacheKey, Variable called, Variable arg, boolean sharedScope,
+            Map<String, CompletableFuture<ScenarioCall.Result>> cache, boolean perSuite) {
+        while (true) {
+            CompletableFuture<ScenarioCall.Result> future = cache.get(cacheKey);
+            if (future == null) {
+                CompletableFuture<ScenarioCall.Result> created = new CompletableFuture();
+                future = cache.putIfAbsent(cacheKey, created);
+                if (future == null) { // this thread is the 'winner'
+                    return callOnceAndCache(cacheKey, called, arg, sharedScope, cache, created, perSuite);
+                }
+            }
+            if (future.isDone()) {
+                logger.trace("callonce cache hit for: {}", cacheKey);
+            } else {
+                logger.trace("callonce waiting for: {}", cacheKey);
+            }
+            long startTime = System.currentTimeMillis();
+            ScenarioCall.Result result;
+            try {
+                result = future.join();
+            } catch (CompletionException e) {
+                // the winner failed and has removed the entry, try again - failures are not cached
+                logger.warn("callonce failed in another thread, will retry: {}", cacheKey);
+                continue;
+            }
+            long elapsedTime = System.currentTimeMillis() - startTime;
+            if (elapsedTime > 0) {
+                logger.debug("this thread waited {} milliseconds for callonce: {}", elapsedTime, cacheKey);
+            }
+            return callOnceResult(result, sharedScope, perSuite);
+        }
+    }
+
+    private Variable callOnceAndCache(String cacheKey, Variable called, Variable arg, boolean sharedScope,
+            Map<String, CompletableFuture<ScenarioCall.Result>> cache, CompletableFuture<ScenarioCall.Result> future,
+            boolean perSuite) {
+        logger.info(">> begin callonce: {}", cacheKey);
+        Variable resultValue;
+        ScenarioCall.Result result;
+        try {
+            Map<String, Variable> before = perSuite && sharedScope ? new HashMap(vars) : null;
+            resultValue = call(called, arg, sharedScope);
             // we clone result (and config) here, to snapshot state at the point the callonce was invoked
             // detaching is important (see JsFunction) so that we can keep the source-code aside
             // and use it to re-create functions in a new JS context - and work around graal-js limitations
-            Map<String, Variable> clonedVars = called.isFeature() && sharedScope ? detachVariables(true) : null;
+            Map<String, Variable> clonedVars;
+            if (!called.isFeature() || !sharedScope) {
+                clonedVars = null;
+            } else if (before == null) {
+                clonedVars = detachVariables(true);
+            } else { // only what the called feature defined, other features must not see this caller's vars
+                clonedVars = new HashMap();
+                vars.forEach((k, v) -> {
+                    if (isDefinedByCall(before.get(k), v)) {
+                        clonedVars.put(k, detach(v, true));
+                    }
+                });
+            }
             Config clonedConfig = new Config(config);
             clonedConfig.detach();
             Object resultObject = recurseAndDetachAndDeepClone(resultValue.getValue());
             result = new ScenarioCall.Result(new Variable(resultObject), clonedConfig, clonedVars);
-            CACHE.put(cacheKey, result);
-            logger.info("<< lock released, cached callonce: {}", cacheKey);
-            return resultValue; // another routine will apply globally if needed
+        } catch (Throwable t) { // waiting threads must never block on a future that is not completed
+            cache.remove(cacheKey, future);
+            future.completeExceptionally(t);
+            throw t;
         }
+        future.complete(result);
+        logger.info("<< cached callonce: {}", cacheKey);
+        return resultValue; // another routine will apply globally if needed
+    }
+
+    // functions of the caller are re-attached by the called feature, which is not a change
+    private static boolean isDefinedByCall(Variable before, Variable after) {
+        if (before == after) {
+            return false;
+        }
+        if (before != null && before.isJsFunction() && after.isJsFunction()) {
+            return !before.getValue().toString().equals(after.getValue().toString());
+        }
+        return true;
+    }
+
+    // once per suite instead of once per feature, a relative path can resolve
+    // differently per feature, so the key is the resolved feature file
+    public Variable callSuiteOnce(Variable called, boolean sharedScope) {
+        if (!called.isFeature()) {
+            throw new RuntimeException("not a feature, cannot call once per suite: " + called);
+        }
+        Feature feature = called.getValue();
+        String callTag = feature.getCallTag();
+        String cacheKey = feature.getResource().getPrefixedPath() + (callTag == null ? "" : callTag)
+                + (sharedScope ? " (shared)" : "");
+        Variable result = callOnce(cacheKey, called, null, sharedScope, runtime.featureRuntime.suite.callonceCache, true);
+        if (sharedScope && result.isMap()) {
+            setVariables(result.getValue());
+        }
+        return result;
     }
 
     public Variable callFeature(Feature feature, Variable arg, int index, boolean sharedScope) {
@@ -2132,74 +2347,38 @@ public class ScenarioEngine {
         if (vars.containsKey(text)) {
             return vars.get(text);
         }
-        boolean callOnce = isCallOnceSyntax(text);
-        if (callOnce || isCallSyntax(text)) { // special case in form "callBegin foo arg"
-            if (callOnce) {
-                text = text.substring(9);
-            } else {
-                text = text.substring(5);
-            }
-            return call(callOnce, text, false);
-        } else if (isDollarPrefixedJsonPath(text)) {
-            return evalJsonPathOnVariableByName(RESPONSE, text);
-        } else if (isGetSyntax(text) || isDollarPrefixed(text)) { // special case in form
-            // get json[*].path
-            // $json[*].path
-            // get /xml/path
-            // get xpath-function(expression)
-            int index = -1;
-            if (text.startsWith("$")) {
-                text = text.substring(1);
-            } else if (text.startsWith("get[")) {
-                int pos = text.indexOf(']');
-                index = Integer.valueOf(text.substring(4, pos));
-                text = text.substring(pos + 2);
-            } else {
-                text = text.substring(4);
-            }
-            String left;
-            String right;
-            if (isDollarPrefixedJsonPath(text)) { // edge case get[0] $..foo
-                left = RESPONSE;
-                right = text;
-            } else if (isVariableAndSpaceAndPath(text)) {
-                int pos = text.indexOf(' ');
-                right = text.substring(pos + 1);
-                left = text.substring(0, pos);
-            } else {
-                StringUtils.Pair pair = parseVariableAndPath(text);
-                left = pair.left;
-                right = pair.right;
-            }
-            Variable sv;
-            if (isXmlPath(right) || isXmlPathFunction(right)) {
-                sv = evalXmlPathOnVariableByName(left, right);
-            } else {
-                sv = evalJsonPathOnVariableByName(left, right);
-            }
-            if (index != -1 && sv.isList()) {
-                List list = sv.getValue();
-                if (!list.isEmpty()) {
-                    return new Variable(list.get(index));
+        CompiledExpression exp = CompiledExpression.get(text);
+        switch (exp.type) {
+            case CALL:
+            case CALL_ONCE: // special case in form "callBegin foo arg"
+                return call(exp.type == CompiledExpression.Type.CALL_ONCE, exp.value, false);
+            case JSON_PATH:
+                return evalJsonPathOnVariableByName(RESPONSE, text);
+            case GET_JSON_PATH:
+            case GET_XML_PATH:
+                Variable sv;
+                if (exp.type == CompiledExpression.Type.GET_XML_PATH) {
+                    sv = evalXmlPathOnVariableByName(exp.left, exp.right);
+                } else {
+                    sv = evalJsonPathOnVariableByName(exp.left, exp.right);
                 }
-            }
-            return sv;
-        } else if (isJson(text)) {
-            Json json = Json.of(text);
-            return evalEmbeddedExpressions(new Variable(json.value()));
-        } else if (isXml(text)) {
-            Document doc = XmlUtils.toXmlDoc(text);
-            return evalEmbeddedExpressions(new Variable(doc));
-        } else if (isXmlPath(text)) {
-            return evalXmlPathOnVariableByName(RESPONSE, text);
-        } else {
-            // old school function declarations e.g. function() { } need wrapping in graal
-            if (isJavaScriptFunction(text)) {
-                text = "(" + text + ")";
-            }
-            // js expressions e.g. foo, foo(bar), foo.bar, foo + bar, foo + '', 5, true
-            // including arrow functions e.g. x => x + 1
-            return evalJs(text);
+                if (exp.index != -1 && sv.isList()) {
+                    List list = sv.getValue();
+                    if (!list.isEmpty()) {
+                        return new Variable(list.get(exp.index));
+                    }
+                }
+                return sv;
+            case JSON:
+                Json json = Json.of(text);
+                return evalEmbeddedExpressions(new Variable(json.value()));
+            case XML:
+                Document doc = XmlUtils.toXmlDoc(text);
+                return evalEmbeddedExpressions(new Variable(doc));
+            case XML_PATH:
+                return evalXmlPathOnVariableByName(RESPONSE, text);
+            default:
+                return evalJs(exp.value);
         }
     }
 
@@ -25,12 +25,15 @@ package com.intuit.karate.core;
 
 import com.intuit.karate.FileUtils;
 import com.intuit.karate.StringUtils;
+import com.intuit.karate.Json;
 import com.intuit.karate.JsonUtils;
+import com.intuit.karate.XmlUtils;
 import com.intuit.karate.resource.Resource;
 import com.intuit.karate.resource.ResourceUtils;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.function.Function;
 
 /**
  *
@@ -50,7 +53,14 @@ public class ScenarioFileReader {
         StringUtils.Pair pair = parsePathAndTags(text);
         text = pair.left;
         if (isJsonFile(text) || isXmlFile(text)) {
-            String contents = readFileAsString(text);
+            Resource resource = toResource(text);
+            String contents = readAsString(resource);
+            if (isCacheable(contents)) {
+                return readParsed(resource, contents, s -> {
+                    s = s.trim();
+                    return ScenarioEngine.isXml(s) ? XmlUtils.toXmlDoc(s) : Json.of(s).value();
+                });
+            }
             Variable temp = engine.evalKarateExpression(contents);
             return temp.getValue();
         } else if (isJavaScriptFile(text)) {
@@ -61,23 +71,47 @@ public class ScenarioFileReader {
             return readFileAsString(text);
         } else if (isFeatureFile(text)) {
             Resource fr = toResource(text);
-            Feature feature = Feature.read(fr);
+            Feature feature = featureRuntime == null ? Feature.read(fr) : featureRuntime.suite.featureCache.get(fr);
             feature.setCallTag(pair.right);
             return feature;
         } else if (isCsvFile(text)) {
-            String contents = readFileAsString(text);
-            return JsonUtils.fromCsv(contents);
+            Resource resource = toResource(text);
+            return readParsed(resource, readAsString(resource), JsonUtils::fromCsv);
         } else if (isYamlFile(text)) {
-            String contents = readFileAsString(text);
+            Resource resource = toResource(text);
+            String contents = readAsString(resource);
+            if (!hasEmbeddedExpressions(contents)) {
+                return readParsed(resource, contents, s -> Json.of(JsonUtils.toJson(JsonUtils.fromYaml(s))).value());
+            }
             Object asJson = JsonUtils.fromYaml(contents);
             Variable temp = engine.evalKarateExpression(JsonUtils.toJson(asJson));
             return temp.getValue();
         } else {
-            InputStream is = readFileAsStream(text);
-            return FileUtils.toBytes(is); // TODO stream
+            return readFileAsBytes(text);
         }
     }
 
+    // files with embedded expressions depend on the variables in scope, and
+    // anything else that is not plain json or xml (e.g. js) is left to the engine
+    private static boolean isCacheable(String contents) {
+        if (hasEmbeddedExpressions(contents)) {
+            return false;
+        }
+        String trimmed = contents.trim();
+        return ScenarioEngine.isJson(trimmed) || ScenarioEngine.isXml(trimmed);
+    }
+
+    private static boolean hasEmbeddedExpressions(String contents) {
+        return contents.contains("#(");
+    }
+
+    private Object readParsed(Resource resource, String contents, Function<String, Object> parser) {
+        if (featureRuntime == null) {
+            return parser.apply(contents);
+        }
+        return featureRuntime.suite.resourceCache.getParsed(resource, contents, parser);
+    }
+
     public File relativePathToFile(String relativePath) {
         return toResource(relativePath).getFile();
     }
@@ -92,17 +126,31 @@ public class ScenarioFileReader {
     }
 
     public byte[] readFileAsBytes(String path) {
-        return FileUtils.toBytes(readFileAsStream(path));
+        if (featureRuntime == null) {
+            return FileUtils.toBytes(readFileAsStream(path));
+        }
+        return featureRuntime.suite.resourceCache.getBytes(toResource(path));
     }
 
     public String readFileAsString(String path) {
-        return FileUtils.toString(readFileAsStream(path));
+        return readAsString(toResource(path));
+    }
+
+    private String readAsString(Resource resource) {
+        if (featureRuntime == null) {
+            return FileUtils.toString(resource.getStream());
+        }
+        return featureRuntime.suite.resourceCache.getText(resource);
     }
 
     public InputStream readFileAsStream(String path) {
         return toResource(path).getStream();
     }
 
+    public RowSource readFileAsRows(String path) {
+        return RowSource.of(toResource(path));
+    }
+
     private static String removePrefix(String text) {
         if (text == null) {
             return null;
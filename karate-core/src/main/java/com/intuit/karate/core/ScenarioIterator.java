@@ -23,6 +23,7 @@
  */
 package com.intuit.karate.core;
 
+import java.io.Closeable;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -104,10 +105,10 @@ public class ScenarioIterator implements Spliterator<ScenarioRuntime> {
                 String expression = currentScenario.getDynamicExpression();
                 try {
                     expressionValue = background.engine.evalKarateExpression(expression);
-                    if (expressionValue.isList() || expressionValue.isJsOrJavaFunction()) {
+                    if (expressionValue.isList() || expressionValue.isJsOrJavaFunction() || isRows()) {
                         // all good
                     } else {
-                        throw new RuntimeException("result is neither list nor function: " + expressionValue);
+                        throw new RuntimeException("result is neither list nor function nor rows: " + expressionValue);
                     }
                 } catch (Exception e) {
                     String message = "dynamic expression evaluation failed: " + expression;
@@ -129,6 +130,22 @@ public class ScenarioIterator implements Spliterator<ScenarioRuntime> {
                     action.accept(background);
                     return true; // exit early                    
                 }
+            } else if (isRows()) { // streamed, e.g. karate.readRows('data.csv')
+                Iterator rows = expressionValue.getValue();
+                try {
+                    if (!rows.hasNext()) {
+                        currentScenario = null;
+                        return tryAdvance(action);
+                    }
+                    rowValue = new Variable(rows.next());
+                } catch (Exception e) {
+                    closeRows();
+                    String message = "dynamic rows evaluation failed at index " + rowIndex + ": " + e.getMessage();
+                    background.result.addFakeStepResult(message, e);
+                    currentScenario = null;
+                    action.accept(background);
+                    return true; // exit early
+                }
             } else { // is list
                 List list = expressionValue.getValue();
                 if (rowIndex >= list.size()) {
@@ -149,6 +166,7 @@ public class ScenarioIterator implements Spliterator<ScenarioRuntime> {
                 return true;
             } else { // assume that this is signal to stop the dynamic scenario outline
                 background.logger.info("dynamic expression complete at index: {}, not map-like: {}", rowIndex, rowValue);
+                closeRows();
                 currentScenario = null;
                 return tryAdvance(action);
             }
@@ -159,6 +177,20 @@ public class ScenarioIterator implements Spliterator<ScenarioRuntime> {
         }
     }
 
+    private boolean isRows() {
+        return expressionValue.getValue() instanceof Iterator;
+    }
+
+    private void closeRows() {
+        if (expressionValue.getValue() instanceof Closeable) {
+            try {
+                ((Closeable) expressionValue.getValue()).close();
+            } catch (Exception e) {
+                background.logger.warn("failed to close rows: {}", e.getMessage());
+            }
+        }
+    }
+
     @Override
     public Spliterator<ScenarioRuntime> trySplit() {
         return null;
@@ -87,10 +87,11 @@ public class ScenarioRuntime implements Runnable {
         }
         logger.setAppender(logAppender);
         actions = new ScenarioActions(engine);
-        this.scenario = scenario;
+        // scenarios of a called feature are shared, and the name may be evaluated
+        this.scenario = isNameEvaluated(scenario) && !scenario.isOutlineExample() ? scenario.copy(-1) : scenario;
         this.background = background; // used only to check which steps remain
         magicVariables = initMagicVariables();
-        result = new ScenarioResult(scenario);
+        result = new ScenarioResult(this.scenario);
         if (background != null) {
             result.addStepResults(background.result.getStepResults());
             Map<String, Variable> detached = background.engine.detachVariables(true);            
@@ -301,7 +302,7 @@ public class ScenarioRuntime implements Runnable {
     }
 
     private static boolean isSelectedForExecution(FeatureRuntime fr, Scenario scenario, Tags tags) {
-        Feature feature = scenario.getFeature();
+        Feature feature = fr.feature; // not scenario.getFeature(), which may be shared by many calls
         int callLine = feature.getCallLine();
         if (callLine != -1) {
             int sectionLine = scenario.getSection().getLine();
@@ -556,9 +557,18 @@ public class ScenarioRuntime implements Runnable {
         return scenario.toString();
     }
 
+    private static boolean isWrappedByBackTick(String scenarioName) {
+        return scenarioName != null && scenarioName.length() > 1 && '`' == scenarioName.charAt(0) && '`' == scenarioName.charAt((scenarioName.length() - 1));
+    }
+
+    private static boolean isNameEvaluated(Scenario scenario) {
+        String scenarioName = scenario.getName();
+        return scenarioName != null && (isWrappedByBackTick(scenarioName) || ScenarioEngine.hasJavaScriptPlacehoder(scenarioName));
+    }
+
     public void evaluateScenarioName() {
         String scenarioName = this.scenario.getName();
-        boolean wrappedByBackTick = scenarioName != null && scenarioName.length() > 1 && '`' == scenarioName.charAt(0) && '`' == scenarioName.charAt((scenarioName.length() - 1));
+        boolean wrappedByBackTick = isWrappedByBackTick(scenarioName);
         boolean hasJavascriptPlaceholder = ScenarioEngine.hasJavaScriptPlacehoder(scenarioName);
         if (wrappedByBackTick || hasJavascriptPlaceholder) {
             String eval = scenarioName;
@@ -48,6 +48,8 @@ public class Step {
     private String text;
     private String docString;
     private Table table;
+    // resolved once and re-used for every run of this step, reset when the text changes
+    private volatile StepRuntime.MethodMatch methodMatch;
 
     public static final List<String> PREFIXES = Arrays.asList("*", "Given", "When", "Then", "And", "But");
 
@@ -68,6 +70,7 @@ public class Step {
         this.text = tempStep.text;
         this.docString = tempStep.docString;
         this.table = tempStep.table;
+        this.methodMatch = null;
     }
 
     public String getDebugInfo() {
@@ -196,9 +199,20 @@ public class Step {
     }
 
     public void setText(String text) {
+        if (this.text != null && !this.text.equals(text)) {
+            this.methodMatch = null;
+        }
         this.text = text;
     }
 
+    public StepRuntime.MethodMatch getMethodMatch() {
+        return methodMatch;
+    }
+
+    public void setMethodMatch(StepRuntime.MethodMatch methodMatch) {
+        this.methodMatch = methodMatch;
+    }
+
     public String getDocString() {
         return docString;
     }
@@ -31,6 +31,9 @@ import com.intuit.karate.ScenarioActions;
 import com.intuit.karate.StringUtils;
 import cucumber.api.java.en.When;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -61,6 +64,7 @@ public class StepRuntime {
         final Method method;
         final Pattern pattern;
         final String keyword;
+        final MethodHandle handle;
 
         MethodPattern(Method method, String regex) {
             this.regex = regex;
@@ -73,6 +77,22 @@ public class StepRuntime {
 
             // assuming all @When or @Action start with a ^, get the first word
             keyword = regex.substring(1).split(" ")[0];
+            handle = toHandle(method);
+        }
+
+        // null if the regex does not start with a literal word, e.g. the "foo.bar = 1" pattern
+        String indexKey() {
+            int pos = 1;
+            while (pos < regex.length() && Character.isLetter(regex.charAt(pos))) {
+                pos++;
+            }
+            if (pos == 1) {
+                return null;
+            }
+            if (pos == regex.length() || regex.charAt(pos) == ' ' || regex.charAt(pos) == '$') {
+                return regex.substring(1, pos);
+            }
+            return null;
         }
 
         List<String> match(String text) {
@@ -102,10 +122,28 @@ public class StepRuntime {
 
         final Method method;
         final List<String> args;
+        final MethodHandle handle;
 
         MethodMatch(Method method, List<String> args) {
+            this(method, args, null);
+        }
+
+        MethodMatch(Method method, List<String> args, MethodHandle handle) {
             this.method = method;
             this.args = args;
+            this.handle = handle;
+        }
+
+        void invoke(Actions actions, Object[] args) throws Throwable {
+            if (handle == null) { // re-created from karate json
+                try {
+                    method.invoke(actions, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            } else {
+                Object ignored = (Object) handle.invokeExact((Object) actions, args);
+            }
         }
 
         Object[] convertArgs(Object last) {
@@ -185,7 +223,23 @@ public class StepRuntime {
 
     }
 
+    private static MethodHandle toHandle(Method method) {
+        try {
+            // spread the args so that the call-site is a single invokeExact()
+            int count = method.getParameterCount();
+            return MethodHandles.publicLookup().unreflect(method)
+                    .asType(MethodType.genericMethodType(count + 1))
+                    .asSpreader(Object[].class, count);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private static final Collection<MethodPattern> PATTERNS;
+    // patterns keyed by the first word of the step, so that only a handful of regexes are tried
+    private static final Map<String, List<MethodPattern>> KEYWORDS_PATTERNS;
+    // patterns that do not begin with a fixed word, always tried
+    private static final List<MethodPattern> OTHER_PATTERNS;
     private static final Map<String, Collection<Method>> KEYWORDS_METHODS;
     public static final Collection<Method> METHOD_MATCH;
 
@@ -219,20 +273,53 @@ public class StepRuntime {
             keywordMethods.add(mp.method);
         }
         PATTERNS = temp.values();
+        KEYWORDS_PATTERNS = new HashMap();
+        OTHER_PATTERNS = new ArrayList();
+        for (MethodPattern mp : PATTERNS) {
+            String key = mp.indexKey();
+            if (key == null) {
+                OTHER_PATTERNS.add(mp);
+            } else {
+                KEYWORDS_PATTERNS.computeIfAbsent(key, k -> new ArrayList()).add(mp);
+            }
+        }
         METHOD_MATCH = findMethodsByKeyword("match");
     }
 
-    private static List<MethodMatch> findMethodsMatching(String text) {
-        List<MethodMatch> matches = new ArrayList(1);
-        for (MethodPattern pattern : PATTERNS) {
+    private static void addMatches(List<MethodPattern> patterns, String text, List<MethodMatch> matches) {
+        for (MethodPattern pattern : patterns) {
             List<String> args = pattern.match(text);
             if (args != null) {
-                matches.add(new MethodMatch(pattern.method, args));
+                matches.add(new MethodMatch(pattern.method, args, pattern.handle));
             }
         }
+    }
+
+    private static List<MethodMatch> findMethodsMatching(String text) {
+        List<MethodMatch> matches = new ArrayList(1);
+        int pos = text.indexOf(' ');
+        List<MethodPattern> patterns = KEYWORDS_PATTERNS.get(pos == -1 ? text : text.substring(0, pos));
+        if (patterns != null) {
+            addMatches(patterns, text, matches);
+        }
+        addMatches(OTHER_PATTERNS, text, matches);
         return matches;
     }
 
+    private static MethodMatch findMethodMatching(Step step, String text) {
+        MethodMatch match = step.getMethodMatch();
+        if (match != null) {
+            return match;
+        }
+        List<MethodMatch> matches = findMethodsMatching(text);
+        if (matches.size() == 1) {
+            match = matches.get(0);
+            step.setMethodMatch(match);
+            return match;
+        }
+        return null;
+    }
+
     public static Collection<Method> findMethodsByKeywords(List<String> text) {
         Collection<Method> methods = new HashSet();
         text.forEach(m -> {
@@ -251,15 +338,17 @@ public class StepRuntime {
 
     public static Result execute(Step step, Actions actions) {
         String text = step.getText();
-        List<MethodMatch> matches = findMethodsMatching(text);
-        if (matches.isEmpty()) {
-            KarateException e = new KarateException("no step-definition method match found for: " + text);
-            return Result.failed(0, e, step);
-        } else if (matches.size() > 1) {
-            KarateException e = new KarateException("more than one step-definition method matched: " + text + " - " + matches);
+        MethodMatch match = findMethodMatching(step, text);
+        if (match == null) {
+            List<MethodMatch> matches = findMethodsMatching(text);
+            KarateException e;
+            if (matches.isEmpty()) {
+                e = new KarateException("no step-definition method match found for: " + text);
+            } else {
+                e = new KarateException("more than one step-definition method matched: " + text + " - " + matches);
+            }
             return Result.failed(0, e, step);
         }
-        MethodMatch match = matches.get(0);
         Object last;
         if (step.getDocString() != null) {
             last = step.getDocString();
@@ -277,7 +366,7 @@ public class StepRuntime {
         }
         long startTime = System.nanoTime();
         try {
-            match.method.invoke(actions, args);
+            match.invoke(actions, args);
             if (actions.isAborted()) {
                 return Result.aborted(getElapsedTimeNanos(startTime), match);
             } else if (actions.isFailed()) {
@@ -285,9 +374,7 @@ public class StepRuntime {
             } else {
                 return Result.passed(getElapsedTimeNanos(startTime), match);
             }
-        } catch (InvocationTargetException e) {
-            return Result.failed(getElapsedTimeNanos(startTime), e.getTargetException(), step, match);
-        } catch (Exception e) {
+        } catch (Throwable e) {
             return Result.failed(getElapsedTimeNanos(startTime), e, step, match);
         }
     }
@@ -0,0 +1,264 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * a tag selector such as anyOf('@foo') && !allOf('@bar', '@baz') compiled
+ * into a java predicate, so that no js evaluation is needed per scenario (or
+ * outline example). the functions anyOf, allOf, not and valuesFor(..) with
+ * isPresent, isAnyOf, isAllOf and isOnly combined with &&, ||, ! and
+ * parentheses are supported, anything else (e.g. isEach) is evaluated as js
+ *
+ * @author pthomas3
+ */
+public class TagSelector {
+
+    private static final int MAX_CACHED = 1000;
+    private static final Map<String, TagSelector> CACHE = new ConcurrentHashMap();
+
+    private final String selector;
+    private final Predicate<Tags> predicate; // null if js has to be evaluated
+
+    private TagSelector(String selector) {
+        this.selector = selector;
+        Predicate<Tags> temp;
+        try {
+            temp = new Parser(selector).parse();
+        } catch (RuntimeException e) {
+            temp = null;
+        }
+        predicate = temp;
+    }
+
+    public static TagSelector of(String selector) {
+        TagSelector ts = CACHE.get(selector);
+        if (ts == null) {
+            ts = new TagSelector(selector);
+            if (CACHE.size() < MAX_CACHED) {
+                CACHE.put(selector, ts);
+            }
+        }
+        return ts;
+    }
+
+    public boolean isCompiled() {
+        return predicate != null;
+    }
+
+    public boolean test(Tags tags) {
+        return predicate == null ? tags.evaluateJs(selector) : predicate.test(tags);
+    }
+
+    @Override
+    public String toString() {
+        return selector;
+    }
+
+    private static class Parser {
+
+        final String text;
+        int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Predicate<Tags> parse() {
+            Predicate<Tags> result = or();
+            skipSpaces();
+            if (pos != text.length()) {
+                throw error();
+            }
+            return result;
+        }
+
+        RuntimeException error() {
+            return new RuntimeException("cannot compile tag selector at position " + pos + ": " + text);
+        }
+
+        void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        boolean consume(String token) {
+            skipSpaces();
+            if (text.startsWith(token, pos)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        void expect(String token) {
+            if (!consume(token)) {
+                throw error();
+            }
+        }
+
+        String identifier() {
+            skipSpaces();
+            int start = pos;
+            while (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error();
+            }
+            return text.substring(start, pos);
+        }
+
+        Predicate<Tags> or() {
+            Predicate<Tags> result = and();
+            while (consume("||")) {
+                result = result.or(and());
+            }
+            return result;
+        }
+
+        Predicate<Tags> and() {
+            Predicate<Tags> result = unary();
+            while (consume("&&")) {
+                result = result.and(unary());
+            }
+            return result;
+        }
+
+        Predicate<Tags> unary() {
+            if (consume("!")) {
+                return unary().negate();
+            }
+            if (consume("(")) {
+                Predicate<Tags> result = or();
+                expect(")");
+                return result;
+            }
+            String name = identifier();
+            switch (name) {
+                case "true":
+                    return tags -> true;
+                case "false":
+                    return tags -> false;
+                case "anyOf": {
+                    Object[] args = args();
+                    return tags -> tags.anyOf(args);
+                }
+                case "allOf": {
+                    Object[] args = args();
+                    return tags -> tags.allOf(args);
+                }
+                case "not": {
+                    Object[] args = args();
+                    return tags -> tags.not(args);
+                }
+                case "valuesFor":
+                    return valuesFor();
+                default:
+                    throw error();
+            }
+        }
+
+        Predicate<Tags> valuesFor() {
+            Object[] args = args();
+            if (args.length != 1) {
+                throw error();
+            }
+            String tagName = args[0].toString();
+            expect(".");
+            String method = identifier();
+            switch (method) {
+                case "isPresent":
+                    if (consume("(")) { // also a method in java
+                        expect(")");
+                    }
+                    return tags -> tags.valuesFor(tagName).isPresent;
+                case "isAnyOf": {
+                    Object[] values = args();
+                    return tags -> tags.valuesFor(tagName).isAnyOf(values);
+                }
+                case "isAllOf": {
+                    Object[] values = args();
+                    return tags -> tags.valuesFor(tagName).isAllOf(values);
+                }
+                case "isOnly": {
+                    Object[] values = args();
+                    return tags -> tags.valuesFor(tagName).isOnly(values);
+                }
+                default: // e.g. isEach which takes a js function
+                    throw error();
+            }
+        }
+
+        Object[] args() {
+            expect("(");
+            List<String> list = new ArrayList();
+            if (consume(")")) {
+                return list.toArray();
+            }
+            do {
+                list.add(arg());
+            } while (consume(","));
+            expect(")");
+            return list.toArray();
+        }
+
+        // a quoted string without escapes, or an integer that js would convert to the same string
+        String arg() {
+            skipSpaces();
+            if (pos == text.length()) {
+                throw error();
+            }
+            char c = text.charAt(pos);
+            if (c == '\'' || c == '"') {
+                int end = text.indexOf(c, pos + 1);
+                if (end == -1) {
+                    throw error();
+                }
+                String value = text.substring(pos + 1, end);
+                if (value.indexOf('\\') != -1) {
+                    throw error();
+                }
+                pos = end + 1;
+                return value;
+            }
+            int start = pos;
+            while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos || (pos - start > 1 && text.charAt(start) == '0') || pos - start > 9) {
+                throw error();
+            }
+            return text.substring(start, pos);
+        }
+
+    }
+
+}
@@ -135,7 +135,14 @@ public class Tags implements Iterable<Tag> {
         if (tagSelector == null) {
             return true;
         }
-        JsEngine je = JsEngine.global();
+        return TagSelector.of(tagSelector).test(this);
+    }
+
+    // for selectors that could not be compiled, see TagSelector
+    // a new context and not a thread-local one, which would be created
+    // (and never released) per thread when scenarios run on virtual threads
+    protected boolean evaluateJs(String tagSelector) {
+        JsEngine je = JsEngine.local();
         je.put("anyOf", (Methods.FunVar) this::anyOf);
         je.put("allOf", (Methods.FunVar) this::allOf);
         je.put("not", (Methods.FunVar) this::not);
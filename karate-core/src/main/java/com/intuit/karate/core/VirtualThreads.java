@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * scenarios that spend most of their time waiting on i/o can run on virtual
+ * threads (java 21 and above) instead of a pool of platform threads, one
+ * virtual thread per scenario. the thread-locals used by the runtime (the js
+ * engine, the scenario engine and the mock request) are set when a scenario
+ * starts on a thread and the js engine is handed back to the pool when the
+ * scenario completes, so they work as-is. since karate is built for java 8,
+ * the jdk api is looked up by reflection
+ *
+ * @author pthomas3
+ */
+public class VirtualThreads {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private static final Method NEW_EXECUTOR;
+
+    static {
+        Method temp;
+        try {
+            temp = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (Exception e) {
+            temp = null;
+        }
+        NEW_EXECUTOR = temp;
+    }
+
+    private VirtualThreads() {
+        // only static methods
+    }
+
+    public static boolean isSupported() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /**
+     * returns null if the jvm does not support virtual threads, else an
+     * executor that starts a virtual thread per task, with no more than
+     * max-concurrent tasks running at a time
+     */
+    public static ExecutorService newExecutor(int maxConcurrent) {
+        if (NEW_EXECUTOR == null) {
+            logger.warn("virtual threads need java 21 or above, current: {}", System.getProperty("java.version"));
+            return null;
+        }
+        try {
+            ExecutorService delegate = (ExecutorService) NEW_EXECUTOR.invoke(null);
+            return new Bounded(delegate, maxConcurrent);
+        } catch (Exception e) {
+            logger.warn("failed to create virtual thread executor: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // waiting for a permit is cheap on a virtual thread
+    private static class Bounded extends AbstractExecutorService {
+
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+
+        Bounded(ExecutorService delegate, int maxConcurrent) {
+            this.delegate = delegate;
+            permits = new Semaphore(Math.max(maxConcurrent, 1));
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(() -> {
+                permits.acquireUninterruptibly();
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+
+    }
+
+}
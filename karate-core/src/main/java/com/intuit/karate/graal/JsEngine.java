@@ -24,14 +24,19 @@
 package com.intuit.karate.graal;
 
 import com.intuit.karate.FileUtils;
+import com.intuit.karate.LruCache;
 import java.io.File;
 import java.io.InputStream;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,23 +54,70 @@ public class JsEngine {
     private static final String JS_NASHORN_COMPAT = "js.nashorn-compat";
     private static final String TRUE = "true";
 
+    // the same expressions are evaluated over and over (embedded expressions,
+    // config, step arguments) so parsed sources are shared across all contexts
+    // least recently used are evicted, and big one-off scripts are never kept
+    private static final int MAX_SOURCES = 10000;
+    private static final int MAX_SOURCE_LENGTH = 16 * 1024;
+    private static final LruCache<String, Source> SOURCES = new LruCache(MAX_SOURCES);
+    private static final LongAdder SOURCE_HITS = new LongAdder();
+    private static final LongAdder SOURCE_MISSES = new LongAdder();
+    // evalWith() wrappers and evalFunction() are functions, so they belong to a context
+    private static final int MAX_FUNCTIONS = 1000;
+    private static final LongAdder FUNCTION_HITS = new LongAdder();
+    private static final LongAdder FUNCTION_MISSES = new LongAdder();
+
+    // one engine for all threads, so that truffle compiles common code once
+    // but every scenario gets a new context, so no state can leak between them
+    private static final Engine ENGINE = Engine.newBuilder().build();
+
     private static final ThreadLocal<JsEngine> GLOBAL_JS_ENGINE = new ThreadLocal<JsEngine>() {
         @Override
         protected JsEngine initialValue() {
-            return new JsEngine(createContext(null));
+            return new JsEngine(createContext());
         }
     };
 
-    private static Context createContext(Engine engine) {
-        if (engine == null) {
-            engine = Engine.newBuilder().build();
-        }
+    private static Context createContext() {
         return Context.newBuilder(JS)
                 .allowExperimentalOptions(true)
                 .allowAllAccess(true)
                 .option(JS_NASHORN_COMPAT, TRUE)
                 .option(JS_EXPERIMENTAL_FOP, TRUE)
-                .engine(engine).build();
+                .engine(ENGINE).build();
+    }
+
+    private static Source toSource(String exp) {
+        Source source = SOURCES.get(exp);
+        if (source != null) {
+            SOURCE_HITS.increment();
+            return source;
+        }
+        SOURCE_MISSES.increment();
+        source = Source.create(JS, exp);
+        if (exp.length() <= MAX_SOURCE_LENGTH) {
+            SOURCES.put(exp, source);
+        }
+        return source;
+    }
+
+    private static <T> Map<String, T> lruMap(int max) {
+        return new LinkedHashMap<String, T>(16, 0.75f, true) { // access order
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                return size() > max;
+            }
+        };
+    }
+
+    public static Map<String, Object> getCacheStats() {
+        Map<String, Object> map = new HashMap(5);
+        map.put("sources", SOURCES.size());
+        map.put("sourceHits", SOURCE_HITS.sum());
+        map.put("sourceMisses", SOURCE_MISSES.sum());
+        map.put("functionHits", FUNCTION_HITS.sum());
+        map.put("functionMisses", FUNCTION_MISSES.sum());
+        return map;
     }
 
     public static JsValue evalGlobal(String src) {
@@ -85,8 +137,7 @@ public class JsEngine {
     }
 
     public static JsEngine local() {
-        Engine engine = GLOBAL_JS_ENGINE.get().context.getEngine();
-        return new JsEngine(createContext(engine));
+        return new JsEngine(createContext());
     }
 
     public static JsEngine local(JsEngine parent) {
@@ -102,6 +153,7 @@ public class JsEngine {
     //
     public final Context context;
     public final Value bindings;
+    private final Map<String, Value> functions = lruMap(MAX_FUNCTIONS);
 
     private JsEngine(Context context) {
         this.context = context;
@@ -121,7 +173,7 @@ public class JsEngine {
     }
 
     public Value evalForValue(String exp) {
-        return context.eval(JS, exp);
+        return context.eval(toSource(exp));
     }
 
     public void put(String key, Object value) {
@@ -183,7 +235,8 @@ public class JsEngine {
         StringBuilder sb = new StringBuilder();
         sb.append("(function(x){ ");
         Map<String, Object> arg = new HashMap(names.size());
-        for (String name : names) {
+        // sorted, so that the same variables always result in the same wrapper
+        for (String name : new TreeSet<>(names)) {
             sb.append("let ").append(name).append(" = x.").append(name).append("; ");
             arg.put(name, getVariable.apply(name));
         }
@@ -191,10 +244,28 @@ public class JsEngine {
             sb.append("return ");
         }
         sb.append(src).append(" })");
-        Value function = evalForValue(sb.toString());
+        Value function = evalFunction(sb.toString());
         return function.execute(JsValue.fromJava(arg));
     }
 
+    /**
+     * for function source that is executed repeatedly, the function is
+     * evaluated only once per context
+     */
+    public Value evalFunction(String src) {
+        Value function = functions.get(src);
+        if (function == null) {
+            FUNCTION_MISSES.increment();
+            function = evalForValue(src);
+            if (src.length() <= MAX_SOURCE_LENGTH) {
+                functions.put(src, function);
+            }
+        } else {
+            FUNCTION_HITS.increment();
+        }
+        return function;
+    }
+
     @Override
     public String toString() {
         return context.toString();
@@ -39,4 +39,14 @@ public class JsFunction {
         source = value.getSourceLocation().getCharacters();
     }
 
+    private JsFunction(CharSequence source) {
+        this.value = null;
+        this.source = source;
+    }
+
+    // e.g. when read back from a cache file, there is no value until attached
+    public static JsFunction fromSource(CharSequence source) {
+        return new JsFunction(source);
+    }
+
 }
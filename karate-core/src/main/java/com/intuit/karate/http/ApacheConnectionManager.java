@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.http;
+
+import com.intuit.karate.core.Config;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * suite-wide pooled connections for the apache client, keyed by the part of
+ * the config that decides how a socket is created (ssl, proxy, timeouts, pool
+ * sizes) so that a re-configure that does not change any of these keeps using
+ * the already warm connections
+ *
+ * @author pthomas3
+ */
+public class ApacheConnectionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApacheConnectionManager.class);
+
+    private static final String SYSTEM_SSL = "system";
+
+    // for clients created without a suite, e.g. the mock server and temp use
+    public static final ApacheConnectionManager SHARED = new ApacheConnectionManager();
+
+    static {
+        // not owned by any suite, so the open connections are closed when the jvm exits
+        Runtime.getRuntime().addShutdownHook(new Thread(SHARED::close));
+    }
+
+    private final Map<String, Pool> pools = new ConcurrentHashMap();
+    // ssl contexts are expensive (key-stores read from disk) and also hold the
+    // tls session cache, so pools that differ only in say timeouts share them
+    private final Map<String, LayeredConnectionSocketFactory> sslFactories = new ConcurrentHashMap();
+
+    private static class Pool {
+
+        final PoolingHttpClientConnectionManager cm;
+        final long idleTimeout;
+        volatile long lastEvictTime;
+
+        Pool(PoolingHttpClientConnectionManager cm, long idleTimeout) {
+            this.cm = cm;
+            this.idleTimeout = idleTimeout;
+            lastEvictTime = System.currentTimeMillis();
+        }
+
+        // lazy eviction, avoids a background thread per pool
+        void evictIfNeeded() {
+            if (idleTimeout <= 0) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastEvictTime < idleTimeout) {
+                return;
+            }
+            lastEvictTime = now;
+            cm.closeExpiredConnections();
+            cm.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+        }
+
+    }
+
+    public static String toKey(Config config, String sslKey) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("ssl:").append(config.isSslEnabled() ? sslKey : null)
+                .append("|proxy:").append(config.getProxyUri())
+                .append("|connectTimeout:").append(config.getConnectTimeout())
+                .append("|maxTotal:").append(config.getPoolMaxTotal())
+                .append("|maxPerRoute:").append(config.getPoolMaxPerRoute())
+                .append("|idleTimeout:").append(config.getPoolIdleTimeout());
+        return sb.toString();
+    }
+
+    public LayeredConnectionSocketFactory getSslSocketFactory(String sslKey, Supplier<LayeredConnectionSocketFactory> sslFactory) {
+        if (sslKey == null) {
+            return sslFactories.computeIfAbsent(SYSTEM_SSL, k -> SSLConnectionSocketFactory.getSystemSocketFactory());
+        }
+        return sslFactories.computeIfAbsent(sslKey, k -> {
+            logger.debug("created ssl context #{}", sslFactories.size() + 1); // key has passwords, not logged
+            return sslFactory.get();
+        });
+    }
+
+    public HttpClientConnectionManager get(String key, Config config, Supplier<LayeredConnectionSocketFactory> sslFactory) {
+        Pool pool = pools.computeIfAbsent(key, k -> {
+            LayeredConnectionSocketFactory socketFactory = sslFactory.get();
+            Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                    .register("https", socketFactory)
+                    .build();
+            PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager(registry);
+            cm.setMaxTotal(config.getPoolMaxTotal());
+            cm.setDefaultMaxPerRoute(config.getPoolMaxPerRoute());
+            cm.setDefaultSocketConfig(SocketConfig.custom().setSoTimeout(config.getConnectTimeout()).build());
+            logger.debug("created connection pool #{}", pools.size() + 1);
+            return new Pool(cm, config.getPoolIdleTimeout());
+        });
+        pool.evictIfNeeded();
+        return pool.cm;
+    }
+
+    public Map<String, Object> getStats() {
+        int leased = 0;
+        int available = 0;
+        int pending = 0;
+        int max = 0;
+        for (Pool pool : pools.values()) {
+            PoolStats stats = pool.cm.getTotalStats();
+            leased += stats.getLeased();
+            available += stats.getAvailable();
+            pending += stats.getPending();
+            max += stats.getMax();
+        }
+        Map<String, Object> map = new HashMap(6);
+        map.put("pools", pools.size());
+        map.put("sslContexts", sslFactories.size());
+        map.put("leased", leased);
+        map.put("available", available);
+        map.put("pending", pending);
+        map.put("max", max);
+        return map;
+    }
+
+    public void close() {
+        pools.values().forEach(pool -> pool.cm.shutdown());
+        pools.clear();
+        sslFactories.clear();
+    }
+
+}
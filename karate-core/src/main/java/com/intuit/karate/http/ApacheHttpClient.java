@@ -29,8 +29,10 @@ import com.intuit.karate.Logger;
 import com.intuit.karate.core.Config;
 import com.intuit.karate.core.ScenarioEngine;
 import io.netty.handler.codec.http.cookie.ServerCookieEncoder;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
@@ -58,12 +60,13 @@ import org.apache.http.client.CookieStore;
 import org.apache.http.client.CredentialsProvider;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.EntityBuilder;
+import org.apache.http.client.entity.GzipCompressingEntity;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
-import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
 import org.apache.http.conn.ssl.LenientSslConnectionSocketFactory;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
@@ -73,6 +76,7 @@ import org.apache.http.cookie.Cookie;
 import org.apache.http.cookie.CookieOrigin;
 import org.apache.http.cookie.CookieSpecProvider;
 import org.apache.http.cookie.MalformedCookieException;
+import org.apache.http.entity.AbstractHttpEntity;
 import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
@@ -94,7 +98,10 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
     private final Logger logger;
     private final HttpLogger httpLogger;
 
+    private final ApacheConnectionManager connectionManager;
+
     private HttpClientBuilder clientBuilder;
+    private CloseableHttpClient client;
     private CookieStore cookieStore;
 
     public static class LenientCookieSpec extends DefaultCookieSpec {
@@ -123,14 +130,115 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
 
     }
 
+    // streamed from the source on every (re) try, never buffered in memory
+    private static class StreamingBodyEntity extends AbstractHttpEntity {
+
+        private final StreamingBody body;
+
+        StreamingBodyEntity(StreamingBody body) {
+            this.body = body;
+            setChunked(body.getLength() < 0);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return body.isRepeatable();
+        }
+
+        @Override
+        public long getContentLength() {
+            return body.getLength();
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return body.open();
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try (InputStream is = body.open()) {
+                byte[] buffer = new byte[StreamingBody.BUFFER_SIZE];
+                int n;
+                while ((n = is.read(buffer)) != -1) {
+                    out.write(buffer, 0, n);
+                }
+            }
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+
+    }
+
     public ApacheHttpClient(ScenarioEngine engine) {
+        this(engine, ApacheConnectionManager.SHARED);
+    }
+
+    public ApacheHttpClient(ScenarioEngine engine, ApacheConnectionManager connectionManager) {
         this.engine = engine;
+        this.connectionManager = connectionManager;
         logger = engine.logger;
         httpLogger = new HttpLogger(logger);
         configure(engine.getConfig());
     }
 
+    private String toSslKey(Config config) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(config.getSslAlgorithm())
+                .append('|').append(toResolvedPath(config.getSslTrustStore()))
+                .append('|').append(config.getSslTrustStorePassword())
+                .append('|').append(config.getSslTrustStoreType())
+                .append('|').append(toResolvedPath(config.getSslKeyStore()))
+                .append('|').append(config.getSslKeyStorePassword())
+                .append('|').append(config.getSslKeyStoreType())
+                .append('|').append(config.isSslTrustAll());
+        return sb.toString();
+    }
+
+    private String toResolvedPath(String path) {
+        // relative paths resolve differently per feature
+        return path == null ? null : engine.fileReader.toResource(path).getPrefixedPath();
+    }
+
+    private LayeredConnectionSocketFactory createSslSocketFactory(Config config) {
+        // System.setProperty("jsse.enableSNIExtension", "false");
+        String algorithm = config.getSslAlgorithm(); // could be null
+        KeyStore trustStore = engine.getKeyStore(config.getSslTrustStore(), config.getSslTrustStorePassword(), config.getSslTrustStoreType());
+        KeyStore keyStore = engine.getKeyStore(config.getSslKeyStore(), config.getSslKeyStorePassword(), config.getSslKeyStoreType());
+        SSLContext sslContext;
+        try {
+            SSLContextBuilder builder = SSLContexts.custom()
+                    .setProtocol(algorithm); // will default to TLS if null
+            if (trustStore == null && config.isSslTrustAll()) {
+                builder = builder.loadTrustMaterial(new TrustAllStrategy());
+            } else {
+                if (config.isSslTrustAll()) {
+                    builder = builder.loadTrustMaterial(trustStore, new TrustSelfSignedStrategy());
+                } else {
+                    builder = builder.loadTrustMaterial(trustStore, null); // will use system / java default
+                }
+            }
+            if (keyStore != null) {
+                char[] keyPassword = config.getSslKeyStorePassword() == null ? null : config.getSslKeyStorePassword().toCharArray();
+                builder = builder.loadKeyMaterial(keyStore, keyPassword);
+            }
+            sslContext = builder.build();
+            if (keyStore != null) {
+                return new SSLConnectionSocketFactory(sslContext, new NoopHostnameVerifier());
+            } else {
+                return new LenientSslConnectionSocketFactory(sslContext, new NoopHostnameVerifier());
+            }
+        } catch (Exception e) {
+            logger.error("ssl context init failed: {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
     private void configure(Config config) {
+        client = null; // will be re-built on next invoke
         clientBuilder = HttpClientBuilder.create();
         clientBuilder.disableAutomaticRetries();
         if (!config.isFollowRedirects()) {
@@ -142,41 +250,11 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
         clientBuilder.setDefaultCookieStore(cookieStore);
         clientBuilder.setDefaultCookieSpecRegistry(LenientCookieSpec.registry());
         clientBuilder.useSystemProperties();
-        if (config.isSslEnabled()) {
-            // System.setProperty("jsse.enableSNIExtension", "false");
-            String algorithm = config.getSslAlgorithm(); // could be null
-            KeyStore trustStore = engine.getKeyStore(config.getSslTrustStore(), config.getSslTrustStorePassword(), config.getSslTrustStoreType());
-            KeyStore keyStore = engine.getKeyStore(config.getSslKeyStore(), config.getSslKeyStorePassword(), config.getSslKeyStoreType());
-            SSLContext sslContext;
-            try {
-                SSLContextBuilder builder = SSLContexts.custom()
-                        .setProtocol(algorithm); // will default to TLS if null
-                if (trustStore == null && config.isSslTrustAll()) {
-                    builder = builder.loadTrustMaterial(new TrustAllStrategy());
-                } else {
-                    if (config.isSslTrustAll()) {
-                        builder = builder.loadTrustMaterial(trustStore, new TrustSelfSignedStrategy());
-                    } else {
-                        builder = builder.loadTrustMaterial(trustStore, null); // will use system / java default
-                    }
-                }
-                if (keyStore != null) {
-                    char[] keyPassword = config.getSslKeyStorePassword() == null ? null : config.getSslKeyStorePassword().toCharArray();
-                    builder = builder.loadKeyMaterial(keyStore, keyPassword);
-                }
-                sslContext = builder.build();
-                SSLConnectionSocketFactory socketFactory;
-                if (keyStore != null) {
-                    socketFactory = new SSLConnectionSocketFactory(sslContext, new NoopHostnameVerifier());
-                } else {
-                    socketFactory = new LenientSslConnectionSocketFactory(sslContext, new NoopHostnameVerifier());
-                }
-                clientBuilder.setSSLSocketFactory(socketFactory);
-            } catch (Exception e) {
-                logger.error("ssl context init failed: {}", e.getMessage());
-                throw new RuntimeException(e);
-            }
-        }
+        String sslKey = config.isSslEnabled() ? toSslKey(config) : null;
+        String poolKey = ApacheConnectionManager.toKey(config, sslKey);
+        clientBuilder.setConnectionManager(connectionManager.get(poolKey, config,
+                () -> connectionManager.getSslSocketFactory(sslKey, () -> createSslSocketFactory(config))));
+        clientBuilder.setConnectionManagerShared(true);
         RequestConfig.Builder configBuilder = RequestConfig.custom()
                 .setCookieSpec(LenientCookieSpec.KARATE)
                 .setConnectTimeout(config.getConnectTimeout())
@@ -190,8 +268,6 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
             }
         }
         clientBuilder.setDefaultRequestConfig(configBuilder.build());
-        SocketConfig.Builder socketBuilder = SocketConfig.custom().setSoTimeout(config.getConnectTimeout());
-        clientBuilder.setDefaultSocketConfig(socketBuilder.build());
         if (config.getProxyUri() != null) {
             try {
                 URI proxyUri = new URIBuilder(config.getProxyUri()).build();
@@ -244,7 +320,26 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
     public Response invoke(HttpRequest request) {
         this.request = request;
         RequestBuilder requestBuilder = RequestBuilder.create(request.getMethod()).setUri(request.getUrl());
-        if (request.getBody() != null) {
+        if (request.getStreamingBody() != null) {
+            StreamingBodyEntity entity = new StreamingBodyEntity(request.getStreamingBody());
+            boolean gzip = false;
+            List<String> transferEncoding = request.getHeaderValues(HttpConstants.HDR_TRANSFER_ENCODING);
+            if (transferEncoding != null) {
+                for (String te : transferEncoding) {
+                    if (te == null) {
+                        continue;
+                    }
+                    if (te.contains("chunked")) {
+                        entity.setChunked(true);
+                    }
+                    if (te.contains("gzip")) {
+                        gzip = true;
+                    }
+                }
+                request.removeHeader(HttpConstants.HDR_TRANSFER_ENCODING);
+            }
+            requestBuilder.setEntity(gzip ? new GzipCompressingEntity(entity) : entity);
+        } else if (request.getBody() != null) {
             EntityBuilder entityBuilder = EntityBuilder.create().setBinary(request.getBody());
             List<String> transferEncoding = request.getHeaderValues(HttpConstants.HDR_TRANSFER_ENCODING);
             if (transferEncoding != null) {
@@ -266,17 +361,37 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
         if (request.getHeaders() != null) {
             request.getHeaders().forEach((k, vals) -> vals.forEach(v -> requestBuilder.addHeader(k, v)));
         }
-        CloseableHttpClient client = clientBuilder.build();
+        if (client == null) {
+            client = clientBuilder.build();
+        }
         CloseableHttpResponse httpResponse;
         byte[] bytes;
+        File bodyFile = null;
         try {
             httpResponse = client.execute(requestBuilder.build());
-            HttpEntity responseEntity = httpResponse.getEntity();
-            if (responseEntity == null || responseEntity.getContent() == null) {
-                bytes = Constants.ZERO_BYTES;
-            } else {
-                InputStream is = responseEntity.getContent();
-                bytes = FileUtils.toBytes(is);
+            try {
+                HttpEntity responseEntity = httpResponse.getEntity();
+                int threshold = getConfig().getResponseFileThreshold();
+                if (responseEntity == null || responseEntity.getContent() == null) {
+                    bytes = Constants.ZERO_BYTES;
+                } else if (threshold > 0) {
+                    InputStream is = responseEntity.getContent();
+                    if (responseEntity.getContentLength() > threshold) { // -1 if not known
+                        bytes = null;
+                        bodyFile = HttpUtils.toTempFile(Constants.ZERO_BYTES, is);
+                    } else { // read up to the threshold to find out
+                        bytes = HttpUtils.toBytes(is, threshold + 1);
+                        if (bytes.length > threshold) {
+                            bodyFile = HttpUtils.toTempFile(bytes, is);
+                            bytes = null;
+                        }
+                    }
+                } else {
+                    InputStream is = responseEntity.getContent();
+                    bytes = FileUtils.toBytes(is);
+                }
+            } finally {
+                httpResponse.close(); // releases the connection back to the pool
             }
             request.setEndTimeMillis(System.currentTimeMillis());
         } catch (Exception e) {
@@ -314,6 +429,9 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
             headers = toHeaders(httpResponse);            
         }
         Response response = new Response(httpResponse.getStatusLine().getStatusCode(), headers, bytes);
+        if (bodyFile != null) {
+            response.setBodyFile(bodyFile);
+        }
         httpLogger.logResponse(getConfig(), request, response);
         return response;
     }
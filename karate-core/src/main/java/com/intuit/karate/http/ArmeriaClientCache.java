@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.http;
+
+import com.intuit.karate.core.Config;
+import com.linecorp.armeria.client.ClientFactory;
+import com.linecorp.armeria.client.ClientFactoryBuilder;
+import com.linecorp.armeria.client.DecoratingHttpClientFunction;
+import com.linecorp.armeria.client.WebClient;
+import com.linecorp.armeria.client.proxy.ProxyConfig;
+import io.netty.util.AttributeKey;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * web-clients (and the client-factories that hold the connections and event
+ * loops) for the armeria http client, re-used across requests and scenarios
+ * so that connections are pooled and http/2 connections are multiplexed. a
+ * web-client is immutable, so the per-request state (logging, timing) is
+ * attached to the request context and picked up by a shared decorator
+ *
+ * @author pthomas3
+ */
+public class ArmeriaClientCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArmeriaClientCache.class);
+
+    // for clients created without a suite, e.g. the mock server proxy
+    public static final ArmeriaClientCache SHARED = new ArmeriaClientCache();
+
+    static {
+        // not owned by any suite, so the event loops and connections are released when the jvm exits
+        Runtime.getRuntime().addShutdownHook(new Thread(SHARED::close));
+    }
+
+    static final AttributeKey<ArmeriaHttpClient> CLIENT = AttributeKey.valueOf(ArmeriaHttpClient.class, "client");
+    static final AttributeKey<HttpRequest> REQUEST = AttributeKey.valueOf(ArmeriaHttpClient.class, "request");
+
+    private static final DecoratingHttpClientFunction DECORATOR = (delegate, ctx, req) -> {
+        ArmeriaHttpClient client = ctx.attr(CLIENT);
+        return client == null ? delegate.execute(ctx, req) : client.execute(delegate, ctx, req);
+    };
+
+    private final Map<String, ClientFactory> factories = new ConcurrentHashMap();
+    private final Map<String, WebClient> clients = new ConcurrentHashMap();
+
+    static String toFactoryKey(Config config) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("ssl:").append(config.isSslEnabled())
+                .append("|trustAll:").append(config.isSslTrustAll())
+                .append("|proxy:").append(config.getProxyUri())
+                .append("|proxyUsername:").append(config.getProxyUsername())
+                .append("|proxyPassword:").append(config.getProxyPassword())
+                .append("|connectTimeout:").append(config.getConnectTimeout())
+                .append("|idleTimeout:").append(config.getPoolIdleTimeout());
+        return sb.toString();
+    }
+
+    public WebClient get(String urlBase, Config config) {
+        if (config.isSslEnabled() && (config.getSslKeyStore() != null || config.getSslTrustStore() != null)) {
+            // the stores are read relative to the feature, which this client does not know about
+            throw new RuntimeException("ssl key-store / trust-store is not supported by the armeria client, use the apache client instead");
+        }
+        String factoryKey = toFactoryKey(config);
+        String key = factoryKey + "|readTimeout:" + config.getReadTimeout() + "|" + urlBase;
+        return clients.computeIfAbsent(key, k -> {
+            ClientFactory factory = factories.computeIfAbsent(factoryKey, fk -> createFactory(config));
+            return WebClient.builder(urlBase)
+                    .factory(factory)
+                    .responseTimeoutMillis(config.getReadTimeout())
+                    .decorator(DECORATOR)
+                    .build();
+        });
+    }
+
+    private static ClientFactory createFactory(Config config) {
+        ClientFactoryBuilder builder = ClientFactory.builder()
+                .connectTimeoutMillis(config.getConnectTimeout())
+                .idleTimeoutMillis(config.getPoolIdleTimeout());
+        if (config.isSslEnabled() && config.isSslTrustAll()) { // else the jvm defaults apply
+            builder.tlsNoVerify();
+        }
+        if (config.getProxyUri() != null) {
+            URI uri = URI.create(config.getProxyUri());
+            InetSocketAddress address = new InetSocketAddress(uri.getHost(), uri.getPort());
+            if (config.getProxyUsername() == null) {
+                builder.proxyConfig(ProxyConfig.connect(address));
+            } else {
+                builder.proxyConfig(ProxyConfig.connect(address, config.getProxyUsername(), config.getProxyPassword(), false));
+            }
+        }
+        logger.debug("created client factory for proxy: {}", config.getProxyUri()); // key has the proxy password
+        return builder.build();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> map = new HashMap(2);
+        map.put("factories", factories.size());
+        map.put("clients", clients.size());
+        return map;
+    }
+
+    public void close() {
+        clients.clear();
+        factories.values().forEach(ClientFactory::close);
+        factories.clear();
+    }
+
+}
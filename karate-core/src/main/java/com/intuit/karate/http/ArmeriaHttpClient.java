@@ -28,22 +28,30 @@ import com.intuit.karate.Logger;
 import com.intuit.karate.StringUtils;
 import com.intuit.karate.core.Config;
 import com.linecorp.armeria.client.ClientRequestContext;
+import com.linecorp.armeria.client.Clients;
 import com.linecorp.armeria.client.DecoratingHttpClientFunction;
 import com.linecorp.armeria.client.WebClient;
 import com.linecorp.armeria.common.AggregatedHttpResponse;
+import com.linecorp.armeria.common.CommonPools;
+import com.linecorp.armeria.common.HttpData;
 import com.linecorp.armeria.common.HttpHeaderNames;
 import com.linecorp.armeria.common.HttpMethod;
+import com.linecorp.armeria.common.HttpRequestWriter;
 import com.linecorp.armeria.common.HttpResponse;
 import com.linecorp.armeria.common.RequestContext;
 import com.linecorp.armeria.common.RequestHeaders;
 import com.linecorp.armeria.common.RequestHeadersBuilder;
 import com.linecorp.armeria.common.ResponseHeaders;
 import com.linecorp.armeria.common.logging.RequestLogProperty;
+import com.linecorp.armeria.common.util.SafeCloseable;
 import com.linecorp.armeria.server.ServiceRequestContext;
+import io.netty.util.AttributeKey;
+import java.io.InputStream;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 /**
@@ -54,9 +62,11 @@ public class ArmeriaHttpClient implements HttpClient, DecoratingHttpClientFuncti
 
     private final Logger logger;
     private final HttpLogger httpLogger;
+    private final ArmeriaClientCache clientCache;
+
+    private static final AttributeKey<Boolean> ASYNC = AttributeKey.valueOf(ArmeriaHttpClient.class, "async");
 
     private Config config;
-    private HttpRequest request;
     private RequestContext requestContext;     
 
     public void setRequestContext(RequestContext requestContext) {
@@ -64,25 +74,20 @@ public class ArmeriaHttpClient implements HttpClient, DecoratingHttpClientFuncti
     }
 
     public ArmeriaHttpClient(Config config, Logger logger) {
+        this(config, logger, ArmeriaClientCache.SHARED);
+    }
+
+    public ArmeriaHttpClient(Config config, Logger logger, ArmeriaClientCache clientCache) {
         this.config = config;
         this.logger = logger;
+        this.clientCache = clientCache;
         httpLogger = new HttpLogger(logger);
     }
 
     @Override
     public Response invoke(HttpRequest request) {
-        this.request = request;
-        HttpMethod httpMethod = HttpMethod.valueOf(request.getMethod());
-        StringUtils.Pair urlAndPath = HttpUtils.parseUriIntoUrlBaseAndPath(request.getUrl());
-        WebClient webClient = WebClient.builder(urlAndPath.left).decorator(this).build();
-        RequestHeadersBuilder rhb = RequestHeaders.builder(httpMethod, urlAndPath.right);
-        Map<String, List<String>> headers = request.getHeaders();
-        if (headers != null) {
-            headers.forEach((k, v) -> rhb.add(k, v));
-        }
-        final byte[] body = request.getBody() == null ? Constants.ZERO_BYTES : request.getBody();
         AggregatedHttpResponse ahr;
-        Callable<AggregatedHttpResponse> callable = () -> webClient.execute(rhb.build(), body).aggregate().join();
+        Callable<AggregatedHttpResponse> callable = () -> execute(request, false).join();
         ServiceRequestContext src = requestContext == null ? null : requestContext.root();
         try {
             if (src == null) {
@@ -94,6 +99,91 @@ public class ArmeriaHttpClient implements HttpClient, DecoratingHttpClientFuncti
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+        Response response = toResponse(ahr);
+        httpLogger.logResponse(config, request, response);
+        return response;
+    }
+
+    /**
+     * does not block, and the request and response are not logged, the caller
+     * is expected to call log() once the response is collected so that the
+     * (scenario) log is only ever appended to from one thread
+     */
+    public CompletableFuture<Response> invokeAsync(HttpRequest request) {
+        return execute(request, true).thenApply(ArmeriaHttpClient::toResponse);
+    }
+
+    public void log(HttpRequest request, Response response) {
+        httpLogger.logRequest(config, request);
+        httpLogger.logResponse(config, request, response);
+    }
+
+    private CompletableFuture<AggregatedHttpResponse> execute(HttpRequest request, boolean async) {
+        HttpMethod httpMethod = HttpMethod.valueOf(request.getMethod());
+        StringUtils.Pair urlAndPath = HttpUtils.parseUriIntoUrlBaseAndPath(request.getUrl());
+        WebClient webClient = clientCache.get(urlAndPath.left, config);
+        RequestHeadersBuilder rhb = RequestHeaders.builder(httpMethod, urlAndPath.right);
+        Map<String, List<String>> headers = request.getHeaders();
+        if (headers != null) {
+            headers.forEach((k, v) -> rhb.add(k, v));
+        }
+        StreamingBody streamingBody = request.getStreamingBody();
+        HttpRequestWriter writer = null;
+        if (streamingBody != null) {
+            // armeria sends "chunked" when there is no content-length
+            List<String> transferEncoding = rhb.getAll(HttpHeaderNames.TRANSFER_ENCODING);
+            boolean chunked = transferEncoding.stream().anyMatch(te -> te.contains("chunked"));
+            rhb.remove(HttpHeaderNames.TRANSFER_ENCODING);
+            if (!chunked && streamingBody.getLength() >= 0) {
+                rhb.setLong(HttpHeaderNames.CONTENT_LENGTH, streamingBody.getLength());
+            }
+            writer = com.linecorp.armeria.common.HttpRequest.streaming(rhb.build());
+        }
+        HttpResponse hr;
+        // the web-client is shared, so this is how the decorator finds this (request)
+        try (SafeCloseable ignored = Clients.withContextCustomizer(ctx -> {
+            ctx.setAttr(ArmeriaClientCache.CLIENT, this);
+            ctx.setAttr(ArmeriaClientCache.REQUEST, request);
+            if (async) {
+                ctx.setAttr(ASYNC, Boolean.TRUE);
+            }
+        })) {
+            if (writer == null) {
+                byte[] body = request.getBody() == null ? Constants.ZERO_BYTES : request.getBody();
+                hr = webClient.execute(rhb.build(), body);
+            } else {
+                hr = webClient.execute(writer);
+            }
+        }
+        if (writer != null) {
+            HttpRequestWriter temp = writer;
+            CommonPools.blockingTaskExecutor().execute(() -> write(temp, streamingBody));
+        }
+        return hr.aggregate();
+    }
+
+    // one chunk at a time, waiting for each to be consumed so that the whole
+    // body is never in memory, even if the server (or network) is slow
+    private static void write(HttpRequestWriter writer, StreamingBody body) {
+        try (InputStream is = body.open()) {
+            byte[] buffer = new byte[StreamingBody.BUFFER_SIZE];
+            int n;
+            while ((n = is.read(buffer)) != -1) {
+                if (n == 0) {
+                    continue;
+                }
+                if (!writer.tryWrite(HttpData.copyOf(buffer, 0, n))) {
+                    return; // aborted, e.g. the connection was closed
+                }
+                writer.whenConsumed().join();
+            }
+            writer.close();
+        } catch (Exception e) {
+            writer.close(e);
+        }
+    }
+
+    private static Response toResponse(AggregatedHttpResponse ahr) {
         ResponseHeaders rh = ahr.headers();
         Map<String, List<String>> responseHeaders = new LinkedHashMap(rh.size());
         for (CharSequence name : rh.names()) {
@@ -102,9 +192,7 @@ public class ArmeriaHttpClient implements HttpClient, DecoratingHttpClientFuncti
             }
         }
         byte[] responseBody = ahr.content().isEmpty() ? Constants.ZERO_BYTES : ahr.content().array();
-        Response response = new Response(ahr.status().code(), responseHeaders, responseBody);
-        httpLogger.logResponse(config, request, response);
-        return response;
+        return new Response(ahr.status().code(), responseHeaders, responseBody);
     }
 
     @Override
@@ -120,6 +208,8 @@ public class ArmeriaHttpClient implements HttpClient, DecoratingHttpClientFuncti
     @Override
     public HttpResponse execute(com.linecorp.armeria.client.HttpClient delegate, ClientRequestContext ctx,
             com.linecorp.armeria.common.HttpRequest req) throws Exception {
+        HttpRequest request = ctx.attr(ArmeriaClientCache.REQUEST);
+        boolean async = ctx.attr(ASYNC) != null;
         ctx.log().whenAvailable(RequestLogProperty.REQUEST_HEADERS).thenAccept(log -> {
             request.setStartTimeMillis(log.requestStartTimeMillis());
             RequestHeaders rh = log.requestHeaders();
@@ -128,7 +218,9 @@ public class ArmeriaHttpClient implements HttpClient, DecoratingHttpClientFuncti
                     request.putHeader(name.toString(), rh.getAll(name));
                 }
             }
-            httpLogger.logRequest(config, request);
+            if (!async) {
+                httpLogger.logRequest(config, request);
+            }
         });
         ctx.log().whenAvailable(RequestLogProperty.RESPONSE_START_TIME).thenAccept(log -> request.setEndTimeMillis(log.responseStartTimeMillis()));
         return delegate.execute(ctx, req);
@@ -0,0 +1,59 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.http;
+
+import com.intuit.karate.core.ScenarioEngine;
+import java.util.Map;
+
+/**
+ * all clients created share web-clients and connections, select this for a
+ * suite via Runner.builder().clientFactory() or the system property
+ * karate.http.client=armeria
+ *
+ * @author pthomas3
+ */
+public class ArmeriaHttpClientFactory implements HttpClientFactory {
+
+    private final ArmeriaClientCache clientCache = new ArmeriaClientCache();
+
+    @Override
+    public HttpClient create(ScenarioEngine engine) {
+        return new ArmeriaHttpClient(engine.getConfig(), engine.logger, clientCache);
+    }
+
+    public ArmeriaClientCache getClientCache() {
+        return clientCache;
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        return clientCache.getStats();
+    }
+
+    @Override
+    public void close() {
+        clientCache.close();
+    }
+
+}
@@ -24,6 +24,7 @@
 package com.intuit.karate.http;
 
 import com.intuit.karate.core.ScenarioEngine;
+import java.util.Map;
 
 /**
  *
@@ -34,6 +35,24 @@ public interface HttpClientFactory {
 
     HttpClient create(ScenarioEngine engine);
 
+    // connection pool stats if applicable, will be null otherwise
+    default Map<String, Object> getStats() {
+        return null;
+    }
+
+    // called when the suite completes, release any shared connections
+    default void close() {
+
+    }
+
     public static final HttpClientFactory DEFAULT = engine -> new ApacheHttpClient(engine);
 
+    // a new instance (with its own connections) for a suite, apache by default
+    public static HttpClientFactory of(String name) {
+        if ("armeria".equalsIgnoreCase(name)) {
+            return new ArmeriaHttpClientFactory();
+        }
+        return new ApacheHttpClientFactory();
+    }
+
 }
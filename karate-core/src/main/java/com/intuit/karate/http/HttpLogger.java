@@ -89,7 +89,7 @@ public class HttpLogger {
         String url = request.getUrl();
         HttpLogModifier logModifier = logModifier(config, url);
         String maskedUrl = logModifier == null ? url : logModifier.uri(url);
-        String rawResponse = response.getBodyAsString();
+        String rawResponse = response.getBodyFile() == null ? response.getBodyAsString() : "[body in file: " + response.getBodyFile().getPath() + "]";
         if (rawResponse != null && logModifier != null) {
             rawResponse = logModifier.response(url, rawResponse);
         }
@@ -113,7 +113,9 @@ public class HttpLogger {
             // don't log body
         } else {
             Object converted = rt == ResourceType.URLENCODED ? null : request.getBodyForDisplay();
-            if (converted == null) {
+            if (converted == null && request.getStreamingBody() != null) {
+                converted = request.getStreamingBody().toString(); // never read it here
+            } else if (converted == null) {
                 try {
                     converted = JsValue.fromBytes(request.getBody(), true, rt);
                 } catch (Throwable t) {
@@ -136,14 +138,21 @@ public class HttpLogger {
         sb.append(requestCount).append(" < ").append(response.getStatus());
         logHeaders(requestCount, " < ", sb, responseModifier, response.getHeaders());
         ResourceType rt = response.getResourceType();
-        if (rt == null || rt.isBinary()) {
+        if (response.getBodyFile() != null) {
+            sb.append("[").append(response.getBodyLength()).append(" bytes written to file: ")
+                    .append(response.getBodyFile().getPath()).append(']');
+        } else if (rt == null || rt.isBinary()) {
             // don't log body
         } else {
             Object converted;
-            try {
-                converted = JsValue.fromBytes(response.getBody(), true, rt);
-            } catch (Throwable t) {
-                converted = response.getBodyAsString();
+            if (config != null && !Config.RESPONSE_PARSING_EAGER.equals(config.getResponseParsing())) {
+                converted = response.getBodyAsString(); // as received, the point is to avoid parsing
+            } else {
+                try {
+                    converted = JsValue.fromBytes(response.getBody(), true, rt);
+                } catch (Throwable t) {
+                    converted = response.getBodyAsString();
+                }
             }
             logBody(config, responseModifier, sb, uri, converted, false);
         }
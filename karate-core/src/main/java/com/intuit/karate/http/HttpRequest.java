@@ -42,6 +42,7 @@ public class HttpRequest {
     private String method;
     private Map<String, List<String>> headers;
     private byte[] body;
+    private StreamingBody streamingBody; // instead of the body, for large uploads
     private String bodyForDisplay;
 
     public void putHeader(String name, String... values) {
@@ -113,6 +114,14 @@ public class HttpRequest {
         this.body = body;
     }
 
+    public StreamingBody getStreamingBody() {
+        return streamingBody;
+    }
+
+    public void setStreamingBody(StreamingBody streamingBody) {
+        this.streamingBody = streamingBody;
+    }
+
     public String getBodyForDisplay() {
         return bodyForDisplay;
     }
@@ -33,6 +33,8 @@ import com.linecorp.armeria.common.QueryParamsBuilder;
 import io.netty.handler.codec.http.cookie.ClientCookieEncoder;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.DefaultCookie;
+import java.io.File;
+import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -168,17 +170,15 @@ public class HttpRequestBuilder implements ProxyObject {
         }
         request.setUrl(urlAndPath);
         if (multiPart != null) {
-            if (body == null) { // this is not-null only for a re-try, don't rebuild multi-part
-                body = multiPart.build();
-                String userContentType = getHeader(HttpConstants.HDR_CONTENT_TYPE);
-                if (userContentType != null) {
-                    String boundary = multiPart.getBoundary();
-                    if (boundary != null) {
-                        contentType(userContentType + "; boundary=" + boundary);
-                    }
-                } else {
-                    contentType(multiPart.getContentTypeHeader());
+            if (multiPart.isStreaming()) { // files are read only when sent
+                boolean first = multiPart.getContentTypeHeader() == null;
+                request.setStreamingBody(multiPart.toStreamingBody());
+                if (first) {
+                    multiPartContentType();
                 }
+            } else if (body == null) { // this is not-null only for a re-try, don't rebuild multi-part
+                body = multiPart.build();
+                multiPartContentType();
             }
             request.setBodyForDisplay(multiPart.getBodyForDisplay());
         }
@@ -190,7 +190,18 @@ public class HttpRequestBuilder implements ProxyObject {
             }
             header(HttpConstants.HDR_COOKIE, cookieValues);
         }
-        if (body != null) {
+        if (body instanceof File) { // never loaded into memory
+            request.setStreamingBody(StreamingBody.of((File) body));
+            if (getContentType() == null) {
+                ResourceType rt = ResourceType.fromFileExtension(((File) body).getName());
+                contentType(rt == null ? ResourceType.BINARY.contentType : rt.contentType);
+            }
+        } else if (body instanceof InputStream) {
+            request.setStreamingBody(StreamingBody.of((InputStream) body));
+            if (getContentType() == null) {
+                contentType(ResourceType.BINARY.contentType);
+            }
+        } else if (body != null) {
             request.setBody(JsValue.toBytes(body));
             if (multiPart == null) {
                 String contentType = getContentType();
@@ -219,6 +230,18 @@ public class HttpRequestBuilder implements ProxyObject {
         return request;
     }
 
+    private void multiPartContentType() {
+        String userContentType = getHeader(HttpConstants.HDR_CONTENT_TYPE);
+        if (userContentType != null) {
+            String boundary = multiPart.getBoundary();
+            if (boundary != null) {
+                contentType(userContentType + "; boundary=" + boundary);
+            }
+        } else {
+            contentType(multiPart.getContentTypeHeader());
+        }
+    }
+
     public Response invoke() {
         return client.invoke(build());
     }
@@ -15,8 +15,13 @@ import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.ssl.util.SelfSignedCertificate;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 
 import java.nio.charset.Charset;
@@ -27,6 +32,8 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.KeyManagerFactory;
 import javax.net.ssl.SSLContext;
@@ -79,12 +86,20 @@ public class HttpUtils {
     }
 
     public static Map<String, String> parseUriPattern(String pattern, String url) {
+        return parseUriPattern(splitUriPath(pattern), url);
+    }
+
+    public static List<String> splitUriPath(String path) {
+        return StringUtils.split(path, '/', false);
+    }
+
+    // for callers that split the pattern once and re-use it
+    public static Map<String, String> parseUriPattern(List<String> leftList, String url) {
         int qpos = url.indexOf('?');
         if (qpos != -1) {
             url = url.substring(0, qpos);
         }
-        List<String> leftList = StringUtils.split(pattern, '/', false);
-        List<String> rightList = StringUtils.split(url, '/', false);
+        List<String> rightList = splitUriPath(url);
         int leftSize = leftList.size();
         int rightSize = rightList.size();
         if (rightSize != leftSize) {
@@ -138,6 +153,59 @@ public class HttpUtils {
         return StringUtils.pair(urlBase, rawUri.substring(pos));
     }
 
+    public static final String TEMP_DIR = "karate-temp";
+
+    // reads at most max bytes, and the stream is not closed
+    public static byte[] toBytes(InputStream is, int max) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(Math.min(max, 8192));
+        byte[] buffer = new byte[8192];
+        int remaining = max;
+        int count;
+        while (remaining > 0 && (count = is.read(buffer, 0, Math.min(buffer.length, remaining))) != -1) {
+            baos.write(buffer, 0, count);
+            remaining -= count;
+        }
+        return baos.toByteArray();
+    }
+
+    // only the files not deleted yet, unlike File.deleteOnExit() which remembers every file
+    private static class TempFiles {
+
+        static final Set<File> FILES = ConcurrentHashMap.newKeySet();
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> FILES.forEach(File::delete)));
+        }
+
+    }
+
+    /**
+     * writes the head followed by the rest of the stream into a new file in
+     * the build directory, call deleteTempFile() when done with it, else it is
+     * deleted only when the jvm exits
+     */
+    public static File toTempFile(byte[] head, InputStream rest) throws IOException {
+        File dir = new File(FileUtils.getBuildDir(), TEMP_DIR);
+        dir.mkdirs();
+        File file = File.createTempFile("response-", ".tmp", dir);
+        TempFiles.FILES.add(file);
+        try (OutputStream os = new FileOutputStream(file)) {
+            os.write(head);
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = rest.read(buffer)) != -1) {
+                os.write(buffer, 0, count);
+            }
+        }
+        return file;
+    }
+
+    public static void deleteTempFile(File file) {
+        if (TempFiles.FILES.remove(file)) { // never a file that was not created by toTempFile()
+            file.delete();
+        }
+    }
+
     //==========================================================================
     //
     public static void flushAndClose(Channel ch) {
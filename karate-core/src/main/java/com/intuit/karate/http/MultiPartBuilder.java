@@ -24,6 +24,7 @@
 package com.intuit.karate.http;
 
 import com.intuit.karate.Constants;
+import com.intuit.karate.FileUtils;
 import com.intuit.karate.graal.JsValue;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
@@ -36,10 +37,22 @@ import io.netty.handler.codec.http.HttpVersion;
 import io.netty.handler.codec.http.multipart.HttpPostRequestEncoder;
 import io.netty.handler.codec.http.multipart.InterfaceHttpData;
 import io.netty.handler.codec.http.multipart.MemoryFileUpload;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +64,8 @@ public class MultiPartBuilder {
 
     private static final Logger logger = LoggerFactory.getLogger(MultiPartBuilder.class);
 
+    private static final String CRLF = "\r\n";
+
     private final HttpClient client;
     private final boolean multipart;
     private final HttpPostRequestEncoder encoder;
@@ -59,6 +74,57 @@ public class MultiPartBuilder {
 
     private String contentTypeHeader;
 
+    // when there are files, the body is streamed instead, see toStreamingBody()
+    private final List<Part> parts = new ArrayList();
+    private boolean hasFiles;
+    private String boundary;
+
+    private static class Part {
+
+        final String name;
+        final String filename;
+        final String contentType;
+        final Charset charset;
+        final String transferEncoding;
+        final File file;
+        final byte[] bytes;
+
+        Part(String name, String filename, String contentType, Charset charset, String transferEncoding, File file, byte[] bytes) {
+            this.name = name;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.charset = charset;
+            this.transferEncoding = transferEncoding;
+            this.file = file;
+            this.bytes = bytes;
+        }
+
+        long length() {
+            return file == null ? bytes.length : file.length();
+        }
+
+        // the same as what the netty encoder does, see build()
+        String header(String boundary) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("--").append(boundary).append(CRLF);
+            sb.append("content-disposition: form-data; name=\"").append(name).append('"');
+            if (filename != null && !filename.isEmpty()) {
+                sb.append("; filename=\"").append(filename).append('"');
+            }
+            sb.append(CRLF).append("content-length: ").append(length()).append(CRLF);
+            sb.append("content-type: ").append(contentType);
+            if (transferEncoding == null) {
+                sb.append("; charset=").append(charset == null ? StandardCharsets.UTF_8 : charset);
+            }
+            sb.append(CRLF);
+            if (transferEncoding != null) {
+                sb.append("content-transfer-encoding: ").append(transferEncoding).append(CRLF);
+            }
+            return sb.append(CRLF).toString();
+        }
+
+    }
+
     public String getBoundary() {
         if (contentTypeHeader == null) {
             return null;
@@ -119,6 +185,9 @@ public class MultiPartBuilder {
                 ResourceType resourceType;
                 if (contentType == null) {
                     resourceType = ResourceType.fromFileExtension(filename);
+                    if (resourceType == null) {
+                        resourceType = ResourceType.BINARY;
+                    }
                     contentType = resourceType.contentType;
                 } else {
                     resourceType = ResourceType.fromContentType(contentType);
@@ -126,6 +195,8 @@ public class MultiPartBuilder {
                         resourceType = ResourceType.BINARY;
                     }
                 }
+                parts.add(new Part(name, filename, contentType, null, resourceType.isBinary() ? "binary" : null, file, null));
+                hasFiles = true;
                 try {
                     encoder.addBodyFileUpload(name, filename, file, contentType, !resourceType.isBinary());
                 } catch (Exception e) {
@@ -155,6 +226,7 @@ public class MultiPartBuilder {
                     filename = ""; // will be treated as an inline value, behaves like null
                 }
                 String transferEncoding = (String) map.get("transferEncoding");
+                parts.add(new Part(name, filename, contentType, cs, transferEncoding, null, encoded));
                 MemoryFileUpload item = new MemoryFileUpload(name, filename, contentType, transferEncoding, cs, encoded.length);
                 try {
                     item.setContent(Unpooled.wrappedBuffer(encoded));
@@ -175,6 +247,58 @@ public class MultiPartBuilder {
         return part(map);
     }
 
+    public boolean isStreaming() {
+        return multipart && hasFiles;
+    }
+
+    /**
+     * the files are read from disk only as the body is being sent, and the
+     * body can be re-sent (e.g. for a retry) since the boundary is fixed
+     */
+    public StreamingBody toStreamingBody() {
+        if (boundary == null) {
+            boundary = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        contentTypeHeader = "multipart/form-data; boundary=" + boundary;
+        List<Object> chunks = new ArrayList(parts.size() * 3 + 1); // byte arrays and files
+        long length = 0;
+        bodyForDisplay = new StringBuilder();
+        for (Part part : parts) {
+            String header = part.header(boundary);
+            bodyForDisplay.append('\n').append(header)
+                    .append(part.file == null ? "[" + part.length() + " bytes]" : "[file: " + part.file.getPath() + "]").append('\n');
+            byte[] bytes = FileUtils.toBytes(header);
+            chunks.add(bytes);
+            chunks.add(part.file == null ? part.bytes : part.file);
+            chunks.add(FileUtils.toBytes(CRLF));
+            length += bytes.length + part.length() + 2;
+        }
+        byte[] end = FileUtils.toBytes("--" + boundary + "--" + CRLF);
+        chunks.add(end);
+        length += end.length;
+        return new StreamingBody(() -> new SequenceInputStream(new Enumeration<InputStream>() {
+            final Iterator<Object> iterator = chunks.iterator();
+
+            @Override
+            public boolean hasMoreElements() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() { // files are opened one at a time
+                Object chunk = iterator.next();
+                if (chunk instanceof File) {
+                    try {
+                        return new FileInputStream((File) chunk);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return new ByteArrayInputStream((byte[]) chunk);
+            }
+        }), length, true, "multipart");
+    }
+
     public byte[] build() {
         for (InterfaceHttpData part : encoder.getBodyListAttributes()) {
             bodyForDisplay.append('\n').append(part.toString()).append('\n');
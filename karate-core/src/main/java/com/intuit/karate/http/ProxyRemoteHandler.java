@@ -29,6 +29,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
 import io.netty.util.ReferenceCountUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -74,6 +75,9 @@ public class ProxyRemoteHandler extends SimpleChannelInboundHandler<FullHttpResp
                 logger.debug("<<<< {}", response);
             }            
         }        
+        // the channel is closed after every response, and a client that pools its
+        // connections (like the apache client) would otherwise re-use it and fail
+        HttpUtil.setKeepAlive(response, false);
         clientChannel.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
     }
 
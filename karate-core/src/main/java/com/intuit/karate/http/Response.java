@@ -32,6 +32,7 @@ import com.intuit.karate.graal.JsValue;
 import com.intuit.karate.graal.Methods;
 import io.netty.handler.codec.http.cookie.ClientCookieDecoder;
 import io.netty.handler.codec.http.cookie.Cookie;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -69,6 +70,7 @@ public class Response implements ProxyObject {
     private int status;
     private Map<String, List<String>> headers;
     private byte[] body;
+    private File bodyFile; // if the body was too big to hold in memory
 
     private ResourceType resourceType;
     private int delay;
@@ -128,28 +130,49 @@ public class Response implements ProxyObject {
     }
 
     public byte[] getBody() {
+        if (body == null && bodyFile != null) { // only if really needed
+            body = FileUtils.toBytes(bodyFile);
+        }
         return body;
     }
 
     public void setBody(byte[] body) {
         this.body = body;
+        bodyFile = null;
     }
 
     public void setBody(String value) {
-        body = FileUtils.toBytes(value);
+        setBody(FileUtils.toBytes(value));
+    }
+
+    public File getBodyFile() {
+        return bodyFile;
+    }
+
+    public void setBodyFile(File bodyFile) {
+        this.bodyFile = bodyFile;
+        body = null;
+    }
+
+    public long getBodyLength() {
+        if (bodyFile != null) {
+            return bodyFile.length();
+        }
+        return body == null ? 0 : body.length;
     }
 
     public String getBodyAsString() {
-        return body == null ? null : FileUtils.toString(body);
+        byte[] bytes = getBody();
+        return bytes == null ? null : FileUtils.toString(bytes);
     }
 
     public Object getBodyConverted() {
         ResourceType rt = getResourceType(); // derive if needed
         if (rt != null && rt.isBinary()) {
-            return body;
+            return getBody();
         }
         try {
-            return JsValue.fromBytes(body, false, rt);
+            return JsValue.fromBytes(getBody(), false, rt);
         } catch (Exception e) {
             logger.trace("failed to auto-convert response: {}", e);
             return getBodyAsString();
@@ -157,7 +180,7 @@ public class Response implements ProxyObject {
     }
 
     public Json json() {
-        return body == null ? null : Json.of(getBodyConverted());
+        return body == null && bodyFile == null ? null : Json.of(getBodyConverted());
     }
 
     public ResourceType getResourceType() {
@@ -288,7 +311,7 @@ public class Response implements ProxyObject {
     public void putMember(String key, Value value) {
         switch (key) {
             case BODY:
-                body = JsValue.toBytes(value);
+                setBody(JsValue.toBytes(value));
                 break;
             case STATUS:
                 status = value.asInt();
@@ -308,8 +331,11 @@ public class Response implements ProxyObject {
         if (resourceType != null && resourceType != ResourceType.BINARY) {
             sb.append(", type: ").append(resourceType);
         }
-        if (body != null) {
-            sb.append(", length: ").append(body.length);
+        if (body != null || bodyFile != null) {
+            sb.append(", length: ").append(getBodyLength());
+        }
+        if (bodyFile != null) {
+            sb.append(", file: ").append(bodyFile.getPath());
         }
         if (headers != null) {
             sb.append(", headers: ").append(headers);
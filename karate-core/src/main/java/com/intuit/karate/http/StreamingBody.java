@@ -0,0 +1,96 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.http;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * a request body that is never held in memory, but read from a file (or any
+ * other source of input-streams) as it is being sent, so that even a multi-gb
+ * upload needs only a small buffer. a new stream is opened for every send,
+ * e.g. for a retry
+ *
+ * @author pthomas3
+ */
+public class StreamingBody {
+
+    public static final int BUFFER_SIZE = 8192;
+
+    @FunctionalInterface
+    public static interface Source {
+
+        InputStream open() throws IOException;
+
+    }
+
+    private final Source source;
+    private final long length;
+    private final boolean repeatable;
+    private final String description;
+
+    public StreamingBody(Source source, long length, boolean repeatable, String description) {
+        this.source = source;
+        this.length = length;
+        this.repeatable = repeatable;
+        this.description = description;
+    }
+
+    public static StreamingBody of(File file) {
+        return new StreamingBody(() -> new FileInputStream(file), file.length(), true, file.getPath());
+    }
+
+    // the stream can be sent only once, and the length is not known up-front
+    public static StreamingBody of(InputStream is) {
+        AtomicBoolean opened = new AtomicBoolean();
+        return new StreamingBody(() -> {
+            if (opened.getAndSet(true)) {
+                throw new IOException("input-stream request body can be sent only once");
+            }
+            return is;
+        }, -1, false, is.getClass().getSimpleName());
+    }
+
+    public InputStream open() throws IOException {
+        return source.open();
+    }
+
+    // -1 if not known, in which case the body will be sent "chunked"
+    public long getLength() {
+        return length;
+    }
+
+    public boolean isRepeatable() {
+        return repeatable;
+    }
+
+    @Override
+    public String toString() {
+        return "[streamed from: " + description + (length == -1 ? "" : ", bytes: " + length) + "]";
+    }
+
+}
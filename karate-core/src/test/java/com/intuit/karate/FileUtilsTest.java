@@ -63,4 +63,11 @@ class FileUtilsTest {
         assertFalse(new File("target/foo/bar/world.txt").exists());        
     }
     
+    @Test
+    void testToDigest() {
+        assertEquals("b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9",
+                FileUtils.toDigest(FileUtils.toInputStream("hello world"), "SHA-256"));
+        assertEquals("5eb63bbbe01eeed093cb22bb8f5acdc3", FileUtils.toDigest(FileUtils.toInputStream("hello world"), "MD5"));
+    }
+
 }
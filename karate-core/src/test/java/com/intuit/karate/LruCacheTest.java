@@ -0,0 +1,36 @@
+package com.intuit.karate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author pthomas3
+ */
+class LruCacheTest {
+
+    @Test
+    void testLeastRecentlyUsedEvicted() {
+        LruCache<String, Integer> cache = new LruCache(10);
+        for (int i = 0; i < 10; i++) {
+            cache.put("k" + i, i);
+        }
+        assertEquals(0, cache.get("k0"));
+        cache.put("k10", 10);
+        assertEquals(9, cache.size()); // one over the limit, plus a tenth
+        assertEquals(0, cache.get("k0"));
+        assertNull(cache.get("k1"));
+        assertNull(cache.get("k2"));
+        assertEquals(3, cache.get("k3"));
+        assertEquals(10, cache.get("k10"));
+    }
+
+    @Test
+    void testComputeIfAbsent() {
+        LruCache<String, Integer> cache = new LruCache(10);
+        assertEquals(3, cache.computeIfAbsent("foo", String::length));
+        assertEquals(3, cache.computeIfAbsent("foo", k -> 0));
+        assertEquals(1, cache.size());
+    }
+
+}
@@ -4,6 +4,9 @@ import com.intuit.karate.graal.JsEngine;
 import static org.junit.jupiter.api.Assertions.*;
 import static com.intuit.karate.Match.Type.*;
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -168,6 +171,69 @@ class MatchTest {
         match("[{ a: 1 }, { a: 2 }]", EACH_EQUALS, "{ a: '#number' }");
     }
 
+    @Test
+    void testEachMacroCompiledOnce() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            sb.append(i == 0 ? "" : ",").append("{ id: ").append(i).append(", name: 'cat").append(i).append("' }");
+        }
+        sb.append(']');
+        Map<String, Object> before = JsEngine.getCacheStats();
+        match(sb.toString(), EACH_EQUALS, "{ id: '#number? _ >= 0', name: '#regex cat[0-9]+' }");
+        Map<String, Object> after = JsEngine.getCacheStats();
+        long misses = (Long) after.get("sourceMisses") - (Long) before.get("sourceMisses");
+        long hits = (Long) after.get("sourceHits") - (Long) before.get("sourceHits");
+        assertTrue(misses <= 1, "misses: " + misses);
+        assertTrue(hits >= 999, "hits: " + hits);
+        match("[1, 2, 3]", EQUALS, "#[_ > 2] #? _ > 0");
+        match("[1, 2, 3]", EQUALS, "#[] #? _ > 1", FAILS);
+    }
+
+    @Test
+    void testMacroWithTrailingSemicolon() {
+        match("5", EQUALS, "#? _ > 1;");
+        match("{ a: 5 }", EQUALS, "{ a: '#number? _ > 1 ; ' }");
+        match("5", EQUALS, "#? _ > 10;", FAILS);
+    }
+
+    @Test
+    void testMacroWithStatements() {
+        match("5", EQUALS, "#? var twice = _ * 2; twice == 10");
+        match("5", EQUALS, "#? var twice = _ * 2; twice == 5", FAILS);
+    }
+
+    @Test
+    void testMacroCallingFunctionThatUsesUnderscore() {
+        JsEngine.evalGlobal("isBig = function(){ return _ > 10 }");
+        try {
+            match("{ a: 20 }", EQUALS, "{ a: '#? isBig()' }");
+            match("{ a: 5 }", EQUALS, "{ a: '#? isBig()' }", FAILS);
+        } finally {
+            JsEngine.global().bindings.removeMember("isBig");
+        }
+    }
+
+    @Test
+    void testEachParallel() {
+        List<Map<String, Object>> list = new ArrayList();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, Object> map = new HashMap();
+            map.put("id", i);
+            map.put("double", i * 2);
+            list.add(map);
+        }
+        JsEngine js = JsEngine.local();
+        Match.Result mr = Match.execute(js, EACH_EQUALS, list, Json.of("{ id: '#number', double: '#(_$.id * 2)' }").value(), 100);
+        assertTrue(mr.pass, mr.message);
+        list.get(700).put("id", "x");
+        list.get(300).put("double", 0);
+        mr = Match.execute(js, EACH_EQUALS, list, Json.of("{ id: '#number', double: '#? _ == _$.id * 2' }").value(), 100);
+        assertFalse(mr.pass);
+        assertTrue(mr.message.contains("match each failed at index 300"), mr.message);
+        assertTrue(mr.message.contains("$[300].double"), mr.message);
+        assertFalse(mr.message.contains("$[700]"), mr.message);
+    }
+
     @Test
     void testEachWithMagicVariables() {
         match("[{a: 1, b: 2}, {a: 2, b: 4}]", EACH_EQUALS, "{ a: '#number', b: '#(_$.a * 2)' }");
@@ -89,6 +89,12 @@ class FeatureRuntimeTest {
         run("callonce-global.feature");
     }
 
+    @Test
+    void testCallSuiteOnce() {
+        run("callonce-suite.feature");
+        match(fr.suite.callonceCache.size(), 2);
+    }
+
     @Test
     void testTags() {
         run("tags.feature");
@@ -147,6 +153,18 @@ class FeatureRuntimeTest {
         run("call-by-tag.feature");
     }
 
+    @Test
+    void testCallByTagFromFeatureCache() {
+        run("call-by-tag-cached.feature");
+        match(fr.suite.featureCache.getStats(), "{ features: 1, hits: 2, misses: 1 }");
+    }
+
+    @Test
+    void testReadFromResourceCache() {
+        run("read-cached.feature");
+        matchContains(fr.suite.resourceCache.getStats(), "{ files: 2, hits: 2, misses: 2 }");
+    }
+
     @Test
     void testCallByTagCalled() {
         run("call-by-tag-called.feature");
@@ -228,6 +246,12 @@ class FeatureRuntimeTest {
         run("outline-generator.feature");
     }
 
+    @Test
+    void testOutlineRows() {
+        run("outline-rows.feature");
+        match(fr.result.getScenarioCount(), 6);
+    }
+
     @Test
     void testToBean() {
         run("to-bean.feature");
@@ -0,0 +1,51 @@
+package com.intuit.karate.core;
+
+import com.intuit.karate.FileUtils;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author pthomas3
+ */
+class FeatureScheduleTest {
+
+    static final String REPORT_DIR = "target/feature-schedule-test";
+
+    static Feature feature(String name, String durations) {
+        Feature feature = Feature.read("classpath:com/intuit/karate/core/runner/" + name);
+        if (durations != null) {
+            File file = new File(REPORT_DIR + File.separator + feature.getKarateJsonFileName());
+            FileUtils.writeToFile(file, "{ \"scenarioResults\": " + durations + " }");
+        }
+        return feature;
+    }
+
+    @Test
+    void testLongestFirst() {
+        File dir = new File(REPORT_DIR);
+        if (dir.exists()) {
+            FileUtils.deleteDirectory(dir);
+        }
+        Feature a = feature("scenario.feature", "[{ \"durationMillis\": 100 }]");
+        Feature b = feature("multi-scenario.feature", "[{ \"durationMillis\": 300 }, { \"durationMillis\": 200.5 }]");
+        Feature c = feature("outline.feature", null); // not in the previous run
+        Feature d = feature("table.feature", "[]");
+        FeatureSchedule schedule = FeatureSchedule.load(REPORT_DIR, Arrays.asList(a, b, c, d), 2);
+        List<Feature> features = schedule.getFeatures();
+        assertEquals(Arrays.asList(c, b, a, d), features);
+        assertEquals(3, schedule.getFeaturesWithDurations());
+        // c: the mean of 600.5 / 3 on one thread, b: 300 on the other and 200.5 after c
+        // then a: 100 after the 300, so the last to finish is 200.17 + 200.5
+        assertEquals(401, schedule.getPredictedMillis());
+        schedule = FeatureSchedule.load(REPORT_DIR, Arrays.asList(a, b, c, d), 1);
+        assertEquals(801, schedule.getPredictedMillis());
+        // nothing known about any feature
+        schedule = FeatureSchedule.load(REPORT_DIR + "-none", Arrays.asList(a, b), 2);
+        assertEquals(0, schedule.getPredictedMillis());
+    }
+
+}
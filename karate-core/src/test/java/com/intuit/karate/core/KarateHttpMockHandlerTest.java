@@ -220,4 +220,58 @@ class KarateHttpMockHandlerTest {
         matchContains(list, "['foo1=bar1; Domain=localhost', 'foo2=bar2; Domain=localhost']");
     }
 
+    @Test
+    void testHttpAsync() {
+        background().scenario(
+                "pathMatches('/hello/{id}')",
+                "def response = { id: '#(pathParams.id)', name: '#(requestParams.name[0])', foo: '#(requestHeaders.foo[0])' }");
+        startMockServer();
+        run(
+                "def urlBase = 'http://localhost:" + server.getPort() + "'",
+                "configure headers = { foo: 'bar' }",
+                "def calls = karate.map([1, 2, 3], x => karate.httpAsync({ url: urlBase, path: ['hello', x], params: { name: 'n' + x } }))",
+                "def results = karate.awaitAll(calls)",
+                "match responseStatus == 200",
+                "match response == { id: '3', name: 'n3', foo: 'bar' }",
+                "def responses = results.map(x => x.response)",
+                "match each results contains { responseStatus: 200, responseTime: '#number' }",
+                "def call = karate.httpAsync({ url: urlBase, path: '/hello/4', method: 'post', body: {} })",
+                "def result = karate.await(call)",
+                "match response.id == '4'"
+        );
+        matchVar("responses", "[{ id: '1', name: 'n1', foo: 'bar' }, { id: '2', name: 'n2', foo: 'bar' }, { id: '3', name: 'n3', foo: 'bar' }]");
+        matchVar("result", "{ responseStatus: 200, response: '#object', responseHeaders: '#object', responseTime: '#number' }");
+    }
+
+    @Test
+    void testHttpAsyncFailure() {
+        background().scenario(
+                "pathMatches('/hello')",
+                "def response = 'hello world'");
+        startMockServer();
+        run(
+                "def first = karate.httpAsync({ url: 'http://localhost:" + server.getPort() + "/hello' })",
+                "def second = karate.httpAsync({ url: 'http://localhost:1/hello' })",
+                "def results = karate.awaitAll([first, second])"
+        );
+        assertTrue(runtime.isFailed());
+        matchVar("response", "hello world");
+    }
+
+    @Test
+    void testRequestFileIsStreamed() {
+        background().scenario(
+                "pathMatches('/upload')",
+                "def type = requestHeaders['content-type'][0]",
+                "def response = { type: '#(type)', body: '#(request)' }");
+        startMockServer();
+        run(
+                urlStep(),
+                "path 'upload'",
+                "request karate.toFile('classpath:com/intuit/karate/core/data.json')",
+                "method post"
+        );
+        matchVar("response", "{ type: 'application/json', body: { hello: 'world' } }");
+    }
+
 }
@@ -3,7 +3,13 @@ package com.intuit.karate.core;
 import static com.intuit.karate.TestUtils.*;
 import com.intuit.karate.http.HttpClient;
 import com.intuit.karate.http.HttpRequestBuilder;
+import com.intuit.karate.http.Request;
 import com.intuit.karate.http.Response;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -317,6 +323,125 @@ class MockHandlerTest {
                 .contentType("application/xml");
         handle();
         match(response.getBodyAsString(), "NULL");        
-    }    
+    }
+
+    @Test
+    void testCompiledRoutesKeepFeatureOrder() {
+        background().scenario(
+                "pathMatches('/cats/{id}') && methodIs('post')",
+                "def response = 'post'"
+        ).scenario(
+                "pathMatches('/cats/{id}') && requestHeaders['x-foo'] != null",
+                "def response = 'js ' + pathParams.id"
+        ).scenario(
+                "pathMatches(\"/cats/{id}\") && paramExists('name')",
+                "def response = 'param ' + pathParams.id"
+        ).scenario(
+                "methodIs('get') || paramExists('foo')",
+                "def response = 'or'"
+        ).scenario(
+                "",
+                "def response = 'default'"
+        );
+        Feature f = feature.build();
+        List<Boolean> compiled = new ArrayList();
+        new MockRouter(f).getRoutes().forEach(r -> compiled.add(r.isCompiled()));
+        match(compiled, "[true, false, true, false, true]");
+        handler = new MockHandler(f);
+        response = handler.handle(request.path("/cats/1").method("POST").build().toRequest());
+        match(response.getBodyAsString(), "post");
+        request = new HttpRequestBuilder(client).method("GET");
+        response = handler.handle(request.path("/cats/2").header("x-foo", "bar").param("name", "x").build().toRequest());
+        match(response.getBodyAsString(), "js 2");
+        request = new HttpRequestBuilder(client).method("GET");
+        response = handler.handle(request.path("/cats/3").param("name", "x").build().toRequest());
+        match(response.getBodyAsString(), "param 3");
+        request = new HttpRequestBuilder(client).method("GET");
+        response = handler.handle(request.path("/dogs").build().toRequest());
+        match(response.getBodyAsString(), "or");
+        request = new HttpRequestBuilder(client).method("DELETE");
+        response = handler.handle(request.path("/cats/1").build().toRequest());
+        match(response.getBodyAsString(), "default");
+    }
+
+    @Test
+    void testRouteSplitIgnoresAndWithinStrings() {
+        match(MockRouter.Route.splitAnd("methodIs('get') && typeContains('a&&b')"), "[\"methodIs('get') \", \" typeContains('a&&b')\"]");
+        match(MockRouter.Route.splitAnd("paramValue('q') == 'x && y'"), "[\"paramValue('q') == 'x && y'\"]");
+        match(MockRouter.Route.splitAnd("(a && b) && c"), "['(a && b) ', ' c']");
+        match(MockRouter.Route.splitAnd("methodIs('get) && b"), null);
+        background().scenario(
+                "typeContains('a&&b') && methodIs('post')",
+                "def response = 'matched'"
+        ).scenario(
+                "",
+                "def response = 'default'"
+        );
+        Feature f = feature.build();
+        match(new MockRouter(f).getRoutes().get(0).isCompiled(), true);
+        handler = new MockHandler(f);
+        response = handler.handle(request.path("/cats").method("POST").header("Content-Type", "x/a&&b").build().toRequest());
+        match(response.getBodyAsString(), "matched");
+    }
+
+    @Test
+    void testGlobalsUpdatedOnlyWhenAssigned() {
+        background(
+                "def utils = ({ greet: function(x){ return 'hello ' + x } })",
+                "def cats = {}",
+                "def count = 0"
+        ).scenario(
+                "pathMatches('/cats/{id}') && methodIs('post')",
+                "eval cats[pathParams.id] = request",
+                "def count = count + 1",
+                "def response = utils.greet(request.name)"
+        ).scenario(
+                "pathMatches('/cats/{id}')",
+                "def response = { cat: '#(cats[pathParams.id])', count: '#(count)' }"
+        );
+        handler = new MockHandler(feature.build());
+        response = handler.handle(request.path("/cats/1").method("POST").bodyJson("{ name: 'Billie' }").build().toRequest());
+        match(response.getBodyAsString(), "hello Billie");
+        request = new HttpRequestBuilder(client).method("GET");
+        response = handler.handle(request.path("/cats/1").build().toRequest());
+        match(response.getBodyConverted(), "{ cat: { name: 'Billie' }, count: 1 }");
+    }
+
+    @Test
+    void testFunctionSetInPlaceOnGlobal() {
+        background(
+                "def utils = {}"
+        ).scenario(
+                "pathMatches('/init')",
+                "eval utils.inc = function(x){ return x + 1 }",
+                "def response = 'ok'"
+        ).scenario(
+                "pathMatches('/call')",
+                "def response = utils.inc(41)"
+        );
+        handler = new MockHandler(feature.build());
+        response = handler.handle(request.path("/init").build().toRequest());
+        match(response.getBodyAsString(), "ok");
+        request = new HttpRequestBuilder(client).method("GET");
+        response = handler.handle(request.path("/call").build().toRequest());
+        match(response.getBodyAsString(), "42");
+    }
+
+    @Test
+    void testConcurrentWithLock() throws Exception {
+        handler = new MockHandler(Feature.read("classpath:com/intuit/karate/core/mock-concurrent.feature"));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Response>> futures = new ArrayList();
+        for (int i = 0; i < 40; i++) {
+            Request req = new HttpRequestBuilder(client).method("GET").path(i % 2 == 0 ? "/increment" : "/count").build().toRequest();
+            futures.add(executor.submit(() -> handler.handle(req)));
+        }
+        for (Future<Response> future : futures) {
+            match(future.get().getStatus(), 200);
+        }
+        executor.shutdown();
+        response = handler.handle(request.path("/count").build().toRequest());
+        match(response.getBodyConverted(), "{ count: 20 }");
+    }
 
 }
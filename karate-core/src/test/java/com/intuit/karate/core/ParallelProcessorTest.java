@@ -0,0 +1,42 @@
+package com.intuit.karate.core;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author pthomas3
+ */
+class ParallelProcessorTest {
+
+    @Test
+    void testErrorDoesNotLosePendingPermit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        ExecutorService monitor = Executors.newSingleThreadExecutor();
+        CountDownLatch done = new CountDownLatch(1);
+        try {
+            ParallelProcessor<Integer> processor = new ParallelProcessor<Integer>(executor, Arrays.asList(1, 2, 3, 4).iterator(), monitor, 1) {
+                @Override
+                public void process(Integer in) {
+                    throw new StackOverflowError("item " + in);
+                }
+
+                @Override
+                public void onComplete() {
+                    done.countDown();
+                }
+            };
+            executor.submit(processor::execute); // would block forever on the second item
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+            monitor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.intuit.karate.core;
+
+import static com.intuit.karate.TestUtils.*;
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.resource.FileResource;
+import java.io.File;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author pthomas3
+ */
+class ResourceCacheTest {
+
+    @Test
+    void testTextAndBytesCachedSeparately() {
+        File file = new File("src/test/java/com/intuit/karate/core/read-cached.json");
+        FileResource resource = new FileResource(file);
+        ResourceCache cache = new ResourceCache();
+        String text = cache.getText(resource);
+        byte[] bytes = cache.getBytes(resource);
+        match(FileUtils.toString(bytes), text);
+        cache.getText(resource);
+        cache.getBytes(resource);
+        match(cache.getStats(), "{ files: 2, size: '#number', hits: 2, misses: 2, evictions: 0 }");
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.intuit.karate.core;
+
+import static com.intuit.karate.TestUtils.*;
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.http.HttpServer;
+import com.intuit.karate.http.Response;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author pthomas3
+ */
+class ResponseFileTest {
+
+    HttpServer server;
+    byte[] body;
+    ScenarioRuntime runtime;
+
+    @BeforeEach
+    void beforeEach() {
+        body = new byte[100000];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) i;
+        }
+        server = HttpServer.handler(request -> {
+            Response response = new Response(200);
+            response.setBody(body);
+            response.setContentType("application/octet-stream");
+            return response;
+        }).build();
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.stop();
+    }
+
+    void run(String... lines) {
+        String[] temp = new String[lines.length + 1];
+        temp[0] = "url 'http://localhost:" + server.getPort() + "'";
+        System.arraycopy(lines, 0, temp, 1, lines.length);
+        runtime = runScenario(null, temp);
+        assertFalse(runtime.isFailed(), runtime.result.getFailureMessageForDisplay());
+    }
+
+    @Test
+    void testResponseInFile() {
+        InputStream is = new ByteArrayInputStream(body);
+        String sha = FileUtils.toDigest(is, "SHA-256");
+        run(
+                "configure responseFileThreshold = 1000",
+                "method get",
+                "match responseStatus == 200",
+                "match responseType == 'file'",
+                "match karate.sizeOf(response) == 100000",
+                "match karate.digest(response) == '" + sha + "'"
+        );
+        File file = runtime.engine.vars.get("response").getValue();
+        assertEquals(file, runtime.engine.getResponse().getBodyFile());
+        // deleted when the scenario ends
+        assertFalse(file.exists());
+    }
+
+    @Test
+    void testResponseBelowThreshold() {
+        InputStream is = new ByteArrayInputStream(body);
+        String sha = FileUtils.toDigest(is, "SHA-256");
+        run(
+                "configure responseFileThreshold = 100000",
+                "method get",
+                "match responseType == 'binary'",
+                "match karate.sizeOf(response) == 100000",
+                "match karate.digest(response) == '" + sha + "'",
+                "match karate.digest(responseBytes, 'MD5') == '#string'"
+        );
+        assertNull(runtime.engine.getResponse().getBodyFile());
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.intuit.karate.core;
+
+import static com.intuit.karate.TestUtils.*;
+import com.intuit.karate.http.HttpServer;
+import com.intuit.karate.http.Response;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * compares the time taken and memory allocated for each responseParsing mode,
+ * not part of the unit tests because the numbers are only meaningful when run
+ * on an otherwise idle jvm
+ *
+ * @author pthomas3
+ */
+public class ResponseParsingRunner {
+
+    static final Logger logger = LoggerFactory.getLogger(ResponseParsingRunner.class);
+
+    // -1 if the jvm cannot report this
+    static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) {
+        StringBuilder sb = new StringBuilder("{ \"items\": [");
+        for (int i = 0; i < 10000; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{ \"id\": ").append(i).append(", \"name\": \"item ").append(i).append("\", \"tags\": [\"a\", \"b\"] }");
+        }
+        sb.append("] }");
+        byte[] body = sb.toString().getBytes();
+        HttpServer server = HttpServer.handler(request -> {
+            Response response = new Response(200);
+            response.setBody(body);
+            response.setContentType("application/json");
+            return response;
+        }).build();
+        try {
+            for (String parsing : new String[]{"eager", "lazy", "none", "eager", "lazy", "none"}) { // second round is warm
+                String[] steps = new String[12];
+                steps[0] = "url 'http://localhost:" + server.getPort() + "'";
+                steps[1] = "configure responseParsing = '" + parsing + "'";
+                for (int i = 2; i < steps.length; i++) {
+                    steps[i] = i % 2 == 0 ? "method get" : "match responseStatus == 200";
+                }
+                long startBytes = allocatedBytes();
+                long startTime = System.nanoTime();
+                ScenarioRuntime runtime = runScenario(null, steps);
+                long millis = (System.nanoTime() - startTime) / 1000000;
+                long megaBytes = startBytes == -1 ? -1 : (allocatedBytes() - startBytes) / (1024 * 1024);
+                logger.info("5 x {} KB responses, responseParsing: {}, failed: {}, time: {} ms, allocated: {} MB",
+                        body.length / 1024, parsing, runtime.isFailed(), millis, megaBytes);
+            }
+        } finally {
+            server.stop();
+        }
+    }
+
+}
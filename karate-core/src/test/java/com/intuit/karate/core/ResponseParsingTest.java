@@ -0,0 +1,110 @@
+package com.intuit.karate.core;
+
+import static com.intuit.karate.TestUtils.*;
+import com.intuit.karate.http.HttpServer;
+import com.intuit.karate.http.Response;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author pthomas3
+ */
+class ResponseParsingTest {
+
+    HttpServer server;
+    ScenarioRuntime runtime;
+
+    @BeforeEach
+    void beforeEach() {
+        StringBuilder sb = new StringBuilder("{ \"items\": [");
+        for (int i = 0; i < 10000; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append("{ \"id\": ").append(i).append(", \"name\": \"item ").append(i).append("\", \"tags\": [\"a\", \"b\"] }");
+        }
+        sb.append("] }");
+        byte[] body = sb.toString().getBytes();
+        server = HttpServer.handler(request -> {
+            Response response = new Response(200);
+            response.setBody(request.getPath().endsWith("malformed") ? "{ \"items\": [".getBytes() : body);
+            response.setContentType("application/json");
+            return response;
+        }).build();
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.stop();
+    }
+
+    ScenarioRuntime run(String parsing, String... lines) {
+        List<String> list = new ArrayList();
+        list.add("url 'http://localhost:" + server.getPort() + "'");
+        if (parsing != null) {
+            list.add("configure responseParsing = '" + parsing + "'");
+        }
+        for (String line : lines) {
+            list.add(line);
+        }
+        runtime = runScenario(null, list.toArray(new String[list.size()]));
+        assertFalse(runtime.isFailed(), runtime.result.getFailureMessageForDisplay());
+        return runtime;
+    }
+
+    Object get(String name) {
+        return runtime.engine.vars.get(name).getValue();
+    }
+
+    @Test
+    void testEager() {
+        run(null, "method get", "match response.items[1] == { id: 1, name: 'item 1', tags: ['a', 'b'] }");
+        assertTrue(LazyJson.isParsed(get("response")));
+    }
+
+    @Test
+    void testLazy() {
+        run("lazy", "method get", "match responseStatus == 200", "match responseType == 'json'");
+        assertFalse(LazyJson.isParsed(get("response")));
+        run("lazy", "method get",
+                "match response.items[1] == { id: 1, name: 'item 1', tags: ['a', 'b'] }",
+                "def first = get[0] response.items",
+                "match first.id == 0",
+                "def count = response.items.length",
+                "match count == 10000",
+                "match response contains { items: '#[10000]' }");
+        assertTrue(LazyJson.isParsed(get("response")));
+    }
+
+    @Test
+    void testNone() {
+        run("none", "method get", "match responseType == 'string'", "match response == '#string'");
+        assertTrue(((String) get("response")).startsWith("{ \"items\": [{ \"id\": 0"));
+    }
+
+    @Test
+    void testInvalid() {
+        runtime = runScenario(null, "configure responseParsing = 'never'");
+        assertTrue(runtime.isFailed());
+    }
+
+    @Test
+    void testLazyMalformed() {
+        run("lazy", "path 'malformed'", "method get", "match responseType == 'string'", "match response == '{ \"items\": ['");
+    }
+
+    @Test
+    void testLazyValidation() {
+        assertNotNull(LazyJson.of(" { \"a\": [1, -2.5e3, true, null, \"x\\\"y\", {}, []] } ".getBytes(), null));
+        assertNull(LazyJson.of("{ \"a\": 1".getBytes(), null));
+        assertNull(LazyJson.of("[1, 2,]".getBytes(), null));
+        assertNull(LazyJson.of("{ a: 1 }".getBytes(), null));
+        assertNull(LazyJson.of("[1] [2]".getBytes(), null));
+    }
+
+}
@@ -91,6 +91,26 @@ public class ScenarioEngineTest {
         assertEquals(StringUtils.pair("foo", "/bar/baz[1]/ban"), ScenarioEngine.parseVariableAndPath("foo/bar/baz[1]/ban"));
     }
 
+    @Test
+    void testCompiledExpression() {
+        assertEquals(CompiledExpression.Type.CALL_ONCE, CompiledExpression.compile("callonce read('foo.feature')").type);
+        assertEquals("read('foo.feature')", CompiledExpression.compile("call read('foo.feature')").value);
+        assertEquals(CompiledExpression.Type.JSON_PATH, CompiledExpression.compile("$..foo").type);
+        CompiledExpression exp = CompiledExpression.compile("get[0] foo[*].bar");
+        assertEquals(CompiledExpression.Type.GET_JSON_PATH, exp.type);
+        assertEquals("foo", exp.left);
+        assertEquals("$[*].bar", exp.right);
+        assertEquals(0, exp.index);
+        exp = CompiledExpression.compile("get foo /root/bar");
+        assertEquals(CompiledExpression.Type.GET_XML_PATH, exp.type);
+        assertEquals("/root/bar", exp.right);
+        assertEquals(CompiledExpression.Type.JSON, CompiledExpression.compile("{ a: 1 }").type);
+        assertEquals(CompiledExpression.Type.XML, CompiledExpression.compile("<a>1</a>").type);
+        assertEquals(CompiledExpression.Type.XML_PATH, CompiledExpression.compile("/a").type);
+        assertEquals("(function(){ return 1 })", CompiledExpression.compile("function(){ return 1 }").value);
+        assertSame(CompiledExpression.get("foo + 1"), CompiledExpression.get("foo + 1"));
+    }
+
     @Test
     void testJsFunction() {
         assertTrue(ScenarioEngine.isJavaScriptFunction("function(){ return { bar: 'baz' } }"));
@@ -10,6 +10,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.List;
+import java.util.Map;
 
 import static com.intuit.karate.TestUtils.match;
 import static com.intuit.karate.TestUtils.runScenario;
@@ -199,6 +200,27 @@ class ScenarioRuntimeTest {
         matchVar("first", get("second"));
     }
 
+    @Test
+    void testCallSingleDiskCache() {
+        File file = new CallSingleCache("target", "callsingle-cached.js").getFile();
+        file.delete();
+        run(
+                "configure callSingleCache = { minutes: 1, dir: 'target' }",
+                "def res = karate.callSingle('callsingle-cached.js')",
+                "match res.greet('john') == 'hello john'"
+        );
+        Object id = ((Map) get("res")).get("id");
+        run( // new suite, so this can only come from the file
+                "configure callSingleCache = { minutes: 1, dir: 'target' }",
+                "def res = karate.callSingle('callsingle-cached.js')",
+                "match res.greet('john') == 'hello john'"
+        );
+        matchVar("res", "{ id: '" + id + "', greet: '#notnull' }");
+        // the temp file was moved, not left behind
+        String[] temp = file.getParentFile().list((dir, name) -> name.startsWith(file.getName() + ".") && name.endsWith(".tmp"));
+        match(temp.length, 0);
+    }
+
     @Test
     void testCallSingleThatReturnsJson() {
         run(
@@ -660,6 +682,20 @@ class ScenarioRuntimeTest {
         );
     }
 
+    @Test
+    void testMatchEachParallelWithScenarioFunctions() {
+        run(
+                "configure matchEachParallelThreshold = 10",
+                "def list = karate.repeat(100, function(i){ return { id: i, name: 'cat' + i } })",
+                "def schema = { id: '#number', name: '#string' }",
+                "match each list == '#? karate.match(_, schema).pass'",
+                "def isValid = function(x){ return x.name == 'cat' + x.id }",
+                "match each list == '#? isValid(_)'",
+                "def min = 0",
+                "match each list == { id: '#? _ >= min', name: '#string' }"
+        );
+    }
+
     @Test
     void testMatchSchemaMagicVariables() {
         run(
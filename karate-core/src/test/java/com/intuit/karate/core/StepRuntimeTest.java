@@ -1,5 +1,6 @@
 package com.intuit.karate.core;
 
+import com.intuit.karate.TestUtils;
 import cucumber.api.java.en.When;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -81,6 +82,47 @@ public class StepRuntimeTest {
 
     }
 
+    @Test
+    public void testKeywordIndexMatchesFullScan() throws Exception {
+        Field patternsField = StepRuntime.class.getDeclaredField("PATTERNS");
+        patternsField.setAccessible(true);
+        Collection<StepRuntime.MethodPattern> patterns = (Collection<StepRuntime.MethodPattern>) patternsField.get(null);
+        String[] steps = {"def a = 1", "def a =", "request", "request { a: 1 }", "foo.bar = 1", "soap action 'x'", "soap action",
+            "set foo.bar = 1", "set foo", "form field a = b", "eval", "match a == 1", "url 'http://x'", "retry until true", "def=1"};
+        for (String text : steps) {
+            List<Method> expected = new ArrayList();
+            for (StepRuntime.MethodPattern pattern : patterns) {
+                if (pattern.match(text) != null) {
+                    expected.add(pattern.method);
+                }
+            }
+            Method findMethodsMatchingMethod = StepRuntime.class.getDeclaredMethod("findMethodsMatching", String.class);
+            findMethodsMatchingMethod.setAccessible(true);
+            List<StepRuntime.MethodMatch> actual = (List<StepRuntime.MethodMatch>) findMethodsMatchingMethod.invoke(StepRuntime.class, text);
+            Assertions.assertEquals(expected.size(), actual.size(), text);
+            actual.forEach(m -> Assertions.assertTrue(expected.contains(m.getMethod()), text));
+        }
+    }
+
+    @Test
+    public void testMethodMatchCachedOnStep() {
+        ScenarioRuntime sr = TestUtils.runtime();
+        sr.engine.init();
+        Step step = sr.scenario.getSteps().get(0);
+        Assertions.assertNull(step.getMethodMatch());
+        step.setText("def a = 1");
+        StepRuntime.execute(step, sr.actions);
+        StepRuntime.MethodMatch match = step.getMethodMatch();
+        Assertions.assertEquals("def", match.getMethod().getName());
+        StepRuntime.execute(step, sr.actions);
+        Assertions.assertSame(match, step.getMethodMatch());
+        step.setText("assert a == 1");
+        Assertions.assertNull(step.getMethodMatch());
+        Result result = StepRuntime.execute(step, sr.actions);
+        Assertions.assertFalse(result.isFailed(), result.getErrorMessage());
+        Assertions.assertEquals("assertTrue", step.getMethodMatch().getMethod().getName());
+    }
+
     private static Stream<Arguments> testParameters() throws ClassNotFoundException, NoSuchMethodException {
         return Stream.of(
                 Arguments.of("com.intuit.karate.ScenarioActions.print(java.lang.String) [\"'name:', name\"]",
@@ -27,7 +27,11 @@ class TagsTest {
             list.add(new Tag(0, s));
         }
         Tags tags = new Tags(list);
-        return tags.evaluate(tagSelector);
+        boolean result = tags.evaluate(tagSelector);
+        if (tagSelector != null) { // compiled has to be the same as js
+            assertEquals(tags.evaluateJs(tagSelector), result);
+        }
+        return result;
     }
     
     @Test
@@ -78,5 +82,20 @@ class TagsTest {
         assertTrue(eval("valuesFor('@id').isEach(s => s.startsWith('1'))", "@id=100,1000"));
         assertTrue(eval("valuesFor('@id').isEach(s => /^1.*/.test(s))", "@id=100,1000"));
     }
+
+    @Test
+    public void testTagSelectorCompiled() {
+        assertTrue(TagSelector.of("anyOf('@foo') && not('@ignore')").isCompiled());
+        assertTrue(TagSelector.of("!(allOf('@foo', \"@bar\") || anyOf())").isCompiled());
+        assertTrue(TagSelector.of("valuesFor('@id').isOnly(1, 2) && valuesFor('@id').isPresent").isCompiled());
+        assertFalse(TagSelector.of("valuesFor('@id').isEach(s => s.startsWith('1'))").isCompiled());
+        assertFalse(TagSelector.of("anyOf('@foo') & anyOf('@bar')").isCompiled());
+        assertFalse(TagSelector.of("valuesFor('@id').isAnyOf(1.5)").isCompiled());
+        assertTrue(eval("!(allOf('@foo', \"@bar\") || anyOf())", "@foo"));
+        assertFalse(eval("!(allOf('@foo', \"@bar\") || anyOf())", "@foo", "@bar"));
+        assertTrue(eval("(anyOf('@foo') || anyOf('@baz')) && !not('@bar')", "@baz", "@bar"));
+        assertTrue(eval("allOf() && !anyOf()"));
+        assertTrue(eval("valuesFor('@id').isAnyOf(1.5)", "@id=1.5"));
+    }
     
 }
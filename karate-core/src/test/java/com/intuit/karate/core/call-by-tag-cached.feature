@@ -0,0 +1,9 @@
+Feature:
+
+Scenario:
+* def foo = call read('call-by-tag-called.feature@name=second')
+* match foo.bar == 2
+* def foo = call read('call-by-tag-called.feature@name=third')
+* match foo.bar == 3
+* def foo = call read('call-by-tag-called.feature@name=second')
+* match foo.bar == 2
@@ -0,0 +1,5 @@
+@ignore
+Feature:
+
+Scenario:
+* def token = java.util.UUID.randomUUID() + ''
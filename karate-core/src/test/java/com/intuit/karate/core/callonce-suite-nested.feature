@@ -0,0 +1,6 @@
+@ignore
+Feature:
+
+Scenario:
+* def result = karate.callSuiteOnce('classpath:com/intuit/karate/core/callonce-suite-called.feature')
+* def token = result.token
@@ -0,0 +1,9 @@
+@ignore
+Feature:
+
+Scenario:
+* def fromA = 'b'
+* def fromB = 'b'
+* karate.callSuiteOnce(true, 'classpath:com/intuit/karate/core/callonce-suite-called.feature')
+* match fromA == 'b'
+* match fromB == 'b'
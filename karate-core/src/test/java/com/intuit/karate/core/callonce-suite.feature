@@ -0,0 +1,18 @@
+Feature: call once per suite, even when the path is resolved from another feature
+
+Background:
+* def result = karate.callSuiteOnce('callonce-suite-called.feature')
+
+Scenario: called feature has a different callonce cache
+* def nested = call read('callonce-suite-nested.feature')
+* match nested.token == result.token
+
+Scenario: shared scope
+* def fromA = 'a'
+* karate.callSuiteOnce(true, 'classpath:com/intuit/karate/core/callonce-suite-called.feature')
+* match token == '#string'
+* match token != result.token
+# only what the called feature defined is applied, another feature keeps its own variables
+* def other = call read('callonce-suite-shared.feature')
+* match other.token == token
+* match other.fromA == 'b'
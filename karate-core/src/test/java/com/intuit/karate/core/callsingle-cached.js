@@ -0,0 +1 @@
+function(){ return { id: java.util.UUID.randomUUID() + '', greet: function(name){ return 'hello ' + name } } }
@@ -0,0 +1,13 @@
+@concurrent
+Feature:
+
+Background:
+* def count = 0
+
+@lock
+Scenario: pathMatches('/increment')
+* def count = count + 1
+* def response = { count: '#(count)' }
+
+Scenario: pathMatches('/count')
+* def response = { count: '#(count)' }
@@ -0,0 +1,15 @@
+Feature:
+
+Scenario Outline: csv: <name>
+* match __row == { name: '#string', age: '#string' }
+* match name == 'cat' + age
+
+Examples:
+| karate.readRows('outline-rows.csv') |
+
+Scenario Outline: json lines: <name>
+* match __row == { name: '#string', age: '#number' }
+* match name == 'cat' + age
+
+Examples:
+| karate.readRows('outline-rows.jsonl') |
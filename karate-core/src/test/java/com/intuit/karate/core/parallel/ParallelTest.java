@@ -4,6 +4,7 @@ import com.intuit.karate.Results;
 import com.intuit.karate.Runner;
 import com.intuit.karate.core.Feature;
 import com.intuit.karate.core.MockHandler;
+import com.intuit.karate.core.VirtualThreads;
 import com.intuit.karate.http.HttpServer;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeAll;
@@ -36,4 +37,18 @@ class ParallelTest {
         assertEquals(0, results.getFailCount(), results.getErrorMessages());
     }
 
+    @Test
+    void testParallelVirtualThreads() {
+        Results results = Runner.path("classpath:com/intuit/karate/core/parallel/parallel.feature")
+                .configDir("classpath:com/intuit/karate/core/parallel")
+                .systemProperty("server.port", server.getPort() + "")
+                .virtualThreads(true)
+                .maxConcurrent(20)
+                .parallel(3);
+        assertEquals(0, results.getFailCount(), results.getErrorMessages());
+        // falls back to platform threads before java 21
+        assertEquals(VirtualThreads.isSupported(), results.getSuite().virtualThreads);
+        assertEquals(VirtualThreads.isSupported() ? 20 : 3, results.getSuite().maxConcurrent);
+    }
+
 }
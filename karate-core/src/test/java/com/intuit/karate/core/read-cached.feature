@@ -0,0 +1,14 @@
+Feature:
+
+Scenario:
+* def first = read('read-cached.json')
+* set first.name = 'Bob'
+* set first.tags[1] = 'b'
+* def second = read('read-cached.json')
+* match second == { name: 'Billie', tags: ['a'] }
+* match first == { name: 'Bob', tags: ['a', 'b'] }
+
+* def name = 'foo'
+* match read('read-cached-embedded.json') == { name: 'foo' }
+* def name = 'bar'
+* match read('read-cached-embedded.json') == { name: 'bar' }
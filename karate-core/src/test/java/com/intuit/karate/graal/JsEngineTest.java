@@ -5,6 +5,7 @@ import com.intuit.karate.core.MockUtils;
 import com.intuit.karate.http.Request;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -214,4 +215,64 @@ class JsEngineTest {
         assertEquals(result.asInt(), 3);
     }
 
+    @Test
+    void testEvalWithWrapperReused() {
+        Map<String, Object> map = new HashMap();
+        map.put("a", 1);
+        map.put("b", 2);
+        long hits = (Long) JsEngine.getCacheStats().get("functionHits");
+        assertEquals(je.evalWith(map, "a * b", true).asInt(), 2);
+        map.put("b", 3);
+        assertEquals(je.evalWith(map, "a * b", true).asInt(), 3);
+        assertEquals(hits + 1, (long) (Long) JsEngine.getCacheStats().get("functionHits"));
+    }
+
+    @Test
+    void testEvalWithWrapperIndependentOfKeyOrder() {
+        Map<String, Object> first = new LinkedHashMap();
+        first.put("m", 1);
+        first.put("n", 2);
+        Map<String, Object> second = new LinkedHashMap();
+        second.put("n", 3);
+        second.put("m", 4);
+        assertEquals(je.evalWith(first, "m - n", true).asInt(), -1);
+        long hits = (Long) JsEngine.getCacheStats().get("functionHits");
+        assertEquals(je.evalWith(second, "m - n", true).asInt(), 1);
+        assertEquals(hits + 1, (long) (Long) JsEngine.getCacheStats().get("functionHits"));
+    }
+
+    @Test
+    void testSourceCachedAcrossContexts() {
+        je.eval("1 + 41");
+        long hits = (Long) JsEngine.getCacheStats().get("sourceHits");
+        JsEngine local = JsEngine.local();
+        assertEquals("42", local.eval("1 + 41").getAsString());
+        assertEquals(hits + 1, (long) (Long) JsEngine.getCacheStats().get("sourceHits"));
+    }
+
+    @Test
+    void testLargeSourceNotCached() {
+        StringBuilder sb = new StringBuilder("[0");
+        while (sb.length() < 20000) { // e.g. an expression that has data in-line
+            sb.append(",0");
+        }
+        String src = sb.append("].length").toString();
+        je.eval(src);
+        long hits = (Long) JsEngine.getCacheStats().get("sourceHits");
+        assertEquals("10000", je.eval(src).getAsString());
+        assertEquals(hits, (long) (Long) JsEngine.getCacheStats().get("sourceHits"));
+    }
+
+    @Test
+    void testLocalContextsAreIsolated() {
+        JsEngine first = JsEngine.local();
+        first.eval("Array.prototype.foo = 1; JSON.foo = 2; Object.prototype.bar = 3; let baz = 4; print = null");
+        JsEngine second = JsEngine.local();
+        assertEquals("undefined", second.eval("typeof [].foo").getAsString());
+        assertEquals("undefined", second.eval("typeof JSON.foo").getAsString());
+        assertEquals("undefined", second.eval("typeof ({}).bar").getAsString());
+        assertEquals("undefined", second.eval("typeof baz").getAsString());
+        assertEquals("function", second.eval("typeof print").getAsString());
+    }
+
 }
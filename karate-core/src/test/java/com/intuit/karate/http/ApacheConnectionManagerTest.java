@@ -0,0 +1,96 @@
+package com.intuit.karate.http;
+
+import static com.intuit.karate.TestUtils.*;
+import com.intuit.karate.Json;
+import com.intuit.karate.core.ScenarioEngine;
+import com.intuit.karate.core.Variable;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author pthomas3
+ */
+class ApacheConnectionManagerTest {
+
+    HttpServer server;
+    ApacheConnectionManager manager;
+
+    @BeforeEach
+    void beforeEach() {
+        server = HttpServer.handler(request -> {
+            Response response = new Response(200);
+            response.setBody("hello");
+            return response;
+        }).build();
+        manager = new ApacheConnectionManager();
+    }
+
+    @AfterEach
+    void afterEach() {
+        manager.close();
+        server.stop();
+    }
+
+    Response invoke(ScenarioEngine engine) {
+        HttpRequestBuilder http = new HttpRequestBuilder(new ApacheHttpClient(engine, manager));
+        http.url("http://localhost:" + server.getPort());
+        return http.invoke("get");
+    }
+
+    @Test
+    void testConnectionReusedAcrossClients() {
+        ScenarioEngine engine = ScenarioEngine.forTempUse();
+        match(invoke(engine).getBodyAsString(), "hello");
+        match(invoke(engine).getBodyAsString(), "hello");
+        Map<String, Object> stats = manager.getStats();
+        match(stats, "{ pools: 1, sslContexts: 1, leased: 0, pending: 0, available: 1, max: '#number' }");
+    }
+
+    @Test
+    void testPoolRebuiltOnlyForConnectionSettings() {
+        ScenarioEngine engine = ScenarioEngine.forTempUse();
+        invoke(engine);
+        engine.getConfig().configure("readTimeout", new Variable(5000));
+        invoke(engine);
+        match(manager.getStats().get("pools"), 1);
+        engine.getConfig().configure("connectionPool", new Variable(Json.of("{ maxPerRoute: 5 }").value()));
+        invoke(engine);
+        match(manager.getStats().get("pools"), 2);
+    }
+
+    @Test
+    void testSslContextSharedAcrossPools() {
+        ScenarioEngine engine = ScenarioEngine.forTempUse();
+        engine.getConfig().configure("ssl", new Variable(true));
+        invoke(engine);
+        engine.getConfig().configure("connectTimeout", new Variable(5000));
+        invoke(engine);
+        match(manager.getStats(), "{ pools: 2, sslContexts: 1, leased: 0, pending: 0, available: 2, max: '#number' }");
+    }
+
+    @Test
+    void testSslContextNotSharedForDifferentPassword() {
+        ScenarioEngine engine = ScenarioEngine.forTempUse();
+        engine.getConfig().configure("ssl", new Variable(Json.of("{ trustAll: true, keyStorePassword: 'one' }").value()));
+        invoke(engine);
+        engine.getConfig().configure("ssl", new Variable(Json.of("{ trustAll: true, keyStorePassword: 'two' }").value()));
+        invoke(engine);
+        match(manager.getStats().get("sslContexts"), 2);
+    }
+
+    @Test
+    void testDefaultClientsShareConnections() {
+        HttpRequestBuilder http = new HttpRequestBuilder(HttpClientFactory.DEFAULT.create(ScenarioEngine.forTempUse()));
+        http.url("http://localhost:" + server.getPort()).invoke("get");
+        Object pools = ApacheConnectionManager.SHARED.getStats().get("pools");
+        for (int i = 0; i < 5; i++) { // e.g. a mock creates a client per request
+            http = new HttpRequestBuilder(HttpClientFactory.DEFAULT.create(ScenarioEngine.forTempUse()));
+            match(http.url("http://localhost:" + server.getPort()).invoke("get").getBodyAsString(), "hello");
+        }
+        match(ApacheConnectionManager.SHARED.getStats().get("pools"), pools);
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.intuit.karate.http;
+
+import static com.intuit.karate.TestUtils.*;
+import com.intuit.karate.Json;
+import com.intuit.karate.core.ScenarioEngine;
+import com.intuit.karate.core.Variable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ *
+ * @author pthomas3
+ */
+class ArmeriaHttpClientFactoryTest {
+
+    static final Logger logger = LoggerFactory.getLogger(ArmeriaHttpClientFactoryTest.class);
+
+    HttpServer server;
+    ArmeriaHttpClientFactory factory;
+
+    @BeforeEach
+    void beforeEach() {
+        server = HttpServer.handler(request -> {
+            Response response = new Response(200);
+            response.setBody("hello");
+            return response;
+        }).build();
+        factory = new ArmeriaHttpClientFactory();
+    }
+
+    @AfterEach
+    void afterEach() {
+        factory.close();
+        server.stop();
+    }
+
+    Response invoke(HttpClientFactory clientFactory, ScenarioEngine engine) {
+        HttpRequestBuilder http = new HttpRequestBuilder(clientFactory.create(engine));
+        http.url("http://localhost:" + server.getPort());
+        return http.invoke("get");
+    }
+
+    @Test
+    void testWebClientReused() {
+        ScenarioEngine engine = ScenarioEngine.forTempUse();
+        match(invoke(factory, engine).getBodyAsString(), "hello");
+        match(invoke(factory, engine).getBodyAsString(), "hello");
+        match(factory.getStats(), "{ factories: 1, clients: 1 }");
+        engine.getConfig().configure("readTimeout", new Variable(5000));
+        invoke(factory, engine);
+        match(factory.getStats(), "{ factories: 1, clients: 2 }");
+        engine.getConfig().configure("connectTimeout", new Variable(5000));
+        invoke(factory, engine);
+        match(factory.getStats(), "{ factories: 2, clients: 3 }");
+    }
+
+    @Test
+    void testAsyncClientUsesSuiteClients() {
+        runScenario(factory,
+                "def call = karate.httpAsync({ url: 'http://localhost:" + server.getPort() + "' })",
+                "def result = karate.await(call)",
+                "match response == 'hello'");
+        match(factory.getStats(), "{ factories: 1, clients: 1 }");
+    }
+
+    @Test
+    void testSelectedByName() {
+        match(HttpClientFactory.of("armeria") instanceof ArmeriaHttpClientFactory, true);
+        match(HttpClientFactory.of(null) instanceof ApacheHttpClientFactory, true);
+    }
+
+    @Test
+    void testFactoryKeyIncludesProxyCredentials() {
+        ScenarioEngine engine = ScenarioEngine.forTempUse();
+        engine.getConfig().configure("proxy", new Variable(Json.of("{ uri: 'http://localhost:8090', username: 'john', password: 'secret' }").asMap()));
+        String first = ArmeriaClientCache.toFactoryKey(engine.getConfig());
+        engine.getConfig().configure("proxy", new Variable(Json.of("{ uri: 'http://localhost:8090', username: 'john', password: 'other' }").asMap()));
+        match(first.equals(ArmeriaClientCache.toFactoryKey(engine.getConfig())), false);
+    }
+
+    @Test
+    void testKeyStoreNotSupported() {
+        ScenarioEngine engine = ScenarioEngine.forTempUse();
+        engine.getConfig().configure("ssl", new Variable(Json.of("{ trustStore: 'classpath:truststore.jks', trustStorePassword: 'karate' }").asMap()));
+        try {
+            invoke(factory, engine);
+            fail("expected exception");
+        } catch (Exception e) {
+            match(e.getMessage().contains("not supported by the armeria client"), true);
+        }
+    }
+
+}
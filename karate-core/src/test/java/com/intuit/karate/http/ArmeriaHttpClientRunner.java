@@ -0,0 +1,52 @@
+package com.intuit.karate.http;
+
+import static com.intuit.karate.TestUtils.*;
+import com.intuit.karate.core.ScenarioEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * compares the time taken for the same requests by the apache and armeria
+ * clients, not part of the unit tests because the numbers are only
+ * meaningful when run on an otherwise idle jvm
+ *
+ * @author pthomas3
+ */
+public class ArmeriaHttpClientRunner {
+
+    static final Logger logger = LoggerFactory.getLogger(ArmeriaHttpClientRunner.class);
+
+    static long time(HttpServer server, HttpClientFactory clientFactory, int count) {
+        ScenarioEngine engine = ScenarioEngine.forTempUse();
+        String url = "http://localhost:" + server.getPort();
+        new HttpRequestBuilder(clientFactory.create(engine)).url(url).invoke("get"); // warm up
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < count; i++) {
+            Response response = new HttpRequestBuilder(clientFactory.create(engine)).url(url).invoke("get");
+            match(response.getBodyAsString(), "hello");
+        }
+        return System.currentTimeMillis() - start;
+    }
+
+    public static void main(String[] args) {
+        HttpServer server = HttpServer.handler(request -> {
+            Response response = new Response(200);
+            response.setBody("hello");
+            return response;
+        }).build();
+        ApacheHttpClientFactory apache = new ApacheHttpClientFactory();
+        ArmeriaHttpClientFactory armeria = new ArmeriaHttpClientFactory();
+        try {
+            for (int round = 0; round < 2; round++) { // second round is warm
+                long apacheTime = time(server, apache, 200);
+                long armeriaTime = time(server, armeria, 200);
+                logger.info("200 requests, apache: {} ms, armeria: {} ms", apacheTime, armeriaTime);
+            }
+        } finally {
+            apache.close();
+            armeria.close();
+            server.stop();
+        }
+    }
+
+}
@@ -1,7 +1,11 @@
 package com.intuit.karate.http;
 
 import static com.intuit.karate.TestUtils.*;
+import com.intuit.karate.FileUtils;
 import com.intuit.karate.StringUtils;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
@@ -78,4 +82,18 @@ class HttpUtilsTest {
         splitUrl("https://api.randomuser.me/?nat=us", "https://api.randomuser.me", "/?nat=us");
     }    
 
+    @Test
+    void testSpillToTempFile() throws Exception {
+        byte[] bytes = "hello world".getBytes();
+        InputStream is = new ByteArrayInputStream(bytes);
+        byte[] head = HttpUtils.toBytes(is, 5);
+        assertEquals("hello", new String(head));
+        File file = HttpUtils.toTempFile(head, is);
+        assertEquals("hello world", FileUtils.toString(file));
+        assertTrue(file.getPath().contains(HttpUtils.TEMP_DIR));
+        HttpUtils.deleteTempFile(file);
+        assertFalse(file.exists());
+        assertEquals(11, HttpUtils.toBytes(new ByteArrayInputStream(bytes), 100).length);
+    }
+
 }
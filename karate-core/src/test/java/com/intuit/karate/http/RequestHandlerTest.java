@@ -1,6 +1,7 @@
 package com.intuit.karate.http;
 
 import com.intuit.karate.Match;
+import com.intuit.karate.graal.JsEngine;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
@@ -70,4 +71,28 @@ class RequestHandlerTest {
         assertTrue(body.contains("<span>John</span>"));
     }
 
+    @Test
+    void testApiGlobalsDoNotLeak() {
+        request.path("/api/demo");
+        handle();
+        assertEquals(201, response.getStatus());
+        JsEngine je = JsEngine.global();
+        assertFalse(je.bindings.hasMember("request"));
+        assertFalse(je.bindings.hasMember("response"));
+        request.path("/api/demo");
+        handle();
+        assertEquals(201, response.getStatus());
+    }
+
+    @Test
+    void testOverwrittenBuiltInDoesNotLeak() {
+        handler = new RequestHandler(new ServerConfig("classpath:com/intuit/karate/http/builtin"));
+        request.path("/api/builtin");
+        handle();
+        assertEquals("{\"hacked\":false}", body);
+        request.path("/api/builtin");
+        handle();
+        assertEquals("{\"hacked\":false}", body);
+    }
+
 }
@@ -0,0 +1,152 @@
+package com.intuit.karate.http;
+
+import static com.intuit.karate.TestUtils.*;
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.Json;
+import com.intuit.karate.core.ScenarioEngine;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author pthomas3
+ */
+class StreamingBodyTest {
+
+    static final int SIZE = 1024 * 1024 + 7; // not a multiple of the buffer size
+
+    HttpServer server;
+    File file;
+    byte[] bytes;
+
+    @BeforeEach
+    void beforeEach() {
+        bytes = new byte[SIZE];
+        new Random(42).nextBytes(bytes);
+        file = new File("target/streaming-body-test.dat");
+        FileUtils.writeToFile(file, bytes);
+        server = HttpServer.handler(request -> {
+            request.processBody();
+            Map<String, Object> map = new HashMap();
+            map.put("contentLength", request.getHeader("Content-Length"));
+            map.put("transferEncoding", request.getHeader("Transfer-Encoding"));
+            map.put("digest", digest(request.getBody()));
+            Map<String, Object> part = request.getMultiPart("myFile");
+            if (part != null) {
+                map.put("filename", part.get("filename"));
+                map.put("fileDigest", digest((byte[]) part.get("value")));
+                map.put("message", request.getParam("message"));
+            }
+            Response response = new Response(200);
+            response.setBody(Json.of(map).toString());
+            response.setContentType("application/json");
+            return response;
+        }).build();
+    }
+
+    @AfterEach
+    void afterEach() {
+        server.stop();
+        file.delete();
+    }
+
+    static String digest(byte[] bytes) {
+        return FileUtils.toDigest(new ByteArrayInputStream(bytes), "SHA-256");
+    }
+
+    HttpRequestBuilder builder(HttpClientFactory factory) {
+        HttpRequestBuilder http = new HttpRequestBuilder(factory.create(ScenarioEngine.forTempUse()));
+        return http.url("http://localhost:" + server.getPort());
+    }
+
+    // the headers actually sent are updated on the request by both clients
+    void testFile(HttpClientFactory factory) {
+        HttpRequestBuilder http = builder(factory).body(file).method("post");
+        HttpRequest request = http.build();
+        Response response = http.client.invoke(request);
+        match(response.getBodyConverted(), "{ contentLength: '#notnull', transferEncoding: '#ignore', digest: '" + digest(bytes) + "' }");
+        match(request.getHeader("Content-Length"), SIZE + "");
+        match(request.getHeader("Transfer-Encoding"), null);
+    }
+
+    void testInputStreamChunked(HttpClientFactory factory) {
+        HttpRequestBuilder http = builder(factory).body(new ByteArrayInputStream(bytes)).method("post");
+        HttpRequest request = http.build();
+        Response response = http.client.invoke(request);
+        match(response.getBodyConverted(), "{ contentLength: '#notnull', transferEncoding: '#ignore', digest: '" + digest(bytes) + "' }");
+        match(request.getHeader("Content-Length"), null);
+    }
+
+    void testFileChunked(HttpClientFactory factory) {
+        HttpRequestBuilder http = builder(factory).body(file).header("Transfer-Encoding", "chunked").method("post");
+        HttpRequest request = http.build();
+        Response response = http.client.invoke(request);
+        match(response.getBodyConverted(), "{ contentLength: '#notnull', transferEncoding: '#ignore', digest: '" + digest(bytes) + "' }");
+        match(request.getHeader("Content-Length"), null);
+    }
+
+    void testMultiPartFile(HttpClientFactory factory) {
+        HttpRequestBuilder http = builder(factory);
+        Map<String, Object> map = new HashMap();
+        map.put("name", "myFile");
+        map.put("value", file);
+        map.put("filename", "upload.dat");
+        http.multiPart(map);
+        map = new HashMap();
+        map.put("name", "message");
+        map.put("value", "hello world");
+        http.multiPart(map);
+        Response response = http.invoke("post");
+        match(response.getBodyConverted(), "{ filename: 'upload.dat', fileDigest: '" + digest(bytes) + "', message: 'hello world', contentLength: '#notnull', transferEncoding: '#ignore', digest: '#string' }");
+    }
+
+    void testAll(HttpClientFactory factory) {
+        testFile(factory);
+        testInputStreamChunked(factory);
+        testFileChunked(factory);
+        testMultiPartFile(factory);
+    }
+
+    @Test
+    void testApache() {
+        testAll(HttpClientFactory.DEFAULT);
+    }
+
+    @Test
+    void testArmeria() {
+        ArmeriaHttpClientFactory factory = new ArmeriaHttpClientFactory();
+        try {
+            testAll(factory);
+        } finally {
+            factory.close();
+        }
+    }
+
+    @Test
+    void testStreamingMultiPartIsRepeatable() throws Exception {
+        MultiPartBuilder builder = new MultiPartBuilder(true, null);
+        Map<String, Object> map = new HashMap();
+        map.put("name", "myFile");
+        map.put("value", file);
+        map.put("filename", "upload.dat");
+        builder.part(map);
+        builder.part("message", "hello world");
+        match(builder.isStreaming(), true);
+        StreamingBody body = builder.toStreamingBody();
+        String boundary = builder.getBoundary();
+        byte[] first = FileUtils.toBytes(body.open());
+        match(first.length == body.getLength(), true);
+        // a re-try has the same boundary and the same bytes
+        body = builder.toStreamingBody();
+        match(builder.getBoundary(), boundary);
+        byte[] second = FileUtils.toBytes(body.open());
+        match(digest(second), digest(first));
+    }
+
+}
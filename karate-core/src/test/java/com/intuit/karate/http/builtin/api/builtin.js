@@ -0,0 +1,2 @@
+response.body = { hacked: JSON.hacked === true };
+JSON = { hacked: true };